@@ -0,0 +1,208 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.benchmarks;
+
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.util.Xml;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Static class providing the mazes used by the benchmarks: the mazes bundled
+ * with the game and synthetic mazes of any size.
+ * 
+ * @author Maze-Android contributors
+ */
+public class BenchmarkMazes {
+	/**
+	 * the directory of the bundled mazes, unless overridden by the
+	 * <code>maze.res</code> system property.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String RES_DIR = "res/raw";
+
+	/**
+	 * the prefix of the names of the synthetic mazes, followed by the number
+	 * of walls.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final String SYNTHETIC = "synthetic-";
+
+	/**
+	 * Loads a maze by name.
+	 * 
+	 * @param name
+	 *            the name of a bundled maze (e.g. <code>maze01</code>) or
+	 *            {@value #SYNTHETIC} followed by the number of walls (e.g.
+	 *            <code>synthetic-1000</code>).
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws Exception
+	 *             if the bundled maze can't be read.
+	 */
+	public static MazeData load(String name) throws Exception {
+		if (name.startsWith(SYNTHETIC))
+			return generate(Integer.parseInt(name.substring(SYNTHETIC
+					.length())), 1);
+
+		InputStream is = new FileInputStream(System.getProperty("maze.res",
+				RES_DIR) + "/" + name + ".maze");
+		try {
+			return Xml.parseMaze(is);
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Generates a maze with the given number of walls, spread uniformly on the
+	 * board, and one hole every ten walls. The start is in the top left
+	 * corner and the goal in the bottom right one.
+	 * 
+	 * @param wallsCount
+	 *            the number of walls.
+	 * @param seed
+	 *            the seed of the random generator.
+	 * 
+	 * @return the data of the maze.
+	 */
+	public static MazeData generate(int wallsCount, long seed) {
+		Random random = new Random(seed);
+		// the size grows with the walls, so that their density stays the same
+		float size = Math.max(200.0f, (float) Math.sqrt(wallsCount) * 60.0f);
+
+		float[] walls = new float[wallsCount * 4];
+		for (int i = 0; i < wallsCount; i++) {
+			float x = random.nextFloat() * size;
+			float y = random.nextFloat() * size;
+			// half of the walls are horizontal, half vertical
+			float length = 20.0f + random.nextFloat() * 40.0f;
+			float width = length;
+			float height = 10.0f;
+			if (random.nextBoolean()) {
+				width = 10.0f;
+				height = length;
+			}
+
+			walls[i * 4] = normalize(x, size);
+			walls[i * 4 + 1] = normalize(Math.min(size, x + width), size);
+			walls[i * 4 + 2] = normalize(y, size);
+			walls[i * 4 + 3] = normalize(Math.min(size, y + height), size);
+		}
+
+		int holesCount = wallsCount / 10 + 1;
+		float[] holes = new float[holesCount * 3];
+		for (int i = 0; i < holesCount - 1; i++) {
+			holes[i * 3] = normalize(random.nextFloat() * size, size);
+			holes[i * 3 + 1] = normalize(random.nextFloat() * size, size);
+			holes[i * 3 + 2] = 10.0f / size;
+		}
+
+		// the goal is the last hole
+		int g = (holesCount - 1) * 3;
+		holes[g] = normalize(size - 10.0f, size);
+		holes[g + 1] = normalize(size - 10.0f, size);
+		holes[g + 2] = 10.0f / size;
+
+		BitSet goals = new BitSet();
+		goals.set(holesCount - 1);
+
+		return new MazeData(SYNTHETIC + wallsCount, 60, size, new float[] {
+				normalize(10.0f, size), normalize(10.0f, size) }, walls,
+				holes, goals);
+	}
+
+	/**
+	 * Writes a maze in the XML format of the maze files, with the coordinates
+	 * rounded to maze units.
+	 * 
+	 * @param data
+	 *            the data of the maze.
+	 * 
+	 * @return the XML file, encoded in UTF-8.
+	 * 
+	 * @throws Exception
+	 *             if the encoding is not supported.
+	 */
+	public static byte[] toXml(MazeData data) throws Exception {
+		float size = data.getSize();
+		float[] start = data.getStart();
+		float[] w = data.getWalls();
+		float[] h = data.getHoles();
+		int g = (data.getHolesCount() - 1) * 3;
+
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<maze name=\"").append(data.getName())
+				.append("\" time=\"").append(data.getTime())
+				.append("\" size-x=\"").append(Math.round(size))
+				.append("\" size-y=\"").append(Math.round(size))
+				.append("\">\n");
+		xml.append("  <graphicSet name=\"none\" />\n");
+		xml.append("  <start x=\"").append(denormalize(start[0], size))
+				.append("\" y=\"").append(denormalize(start[1], size))
+				.append("\" />\n");
+		xml.append("  <goal x=\"").append(denormalize(h[g], size))
+				.append("\" y=\"").append(denormalize(h[g + 1], size))
+				.append("\" />\n");
+
+		xml.append("  <walls>\n");
+		for (int i = 0; i < data.getWallsCount(); i++)
+			xml.append("    <w x1=\"").append(denormalize(w[i * 4], size))
+					.append("\" y1=\"").append(denormalize(w[i * 4 + 2], size))
+					.append("\" x2=\"").append(denormalize(w[i * 4 + 1], size))
+					.append("\" y2=\"").append(denormalize(w[i * 4 + 3], size))
+					.append("\" />\n");
+		xml.append("  </walls>\n");
+
+		xml.append("  <holes totalHoles=\"")
+				.append(data.getHolesCount() - 1).append("\">\n");
+		for (int i = 0; i < data.getHolesCount() - 1; i++)
+			xml.append("    <h number=\"").append(i + 1).append("\" x=\"")
+					.append(denormalize(h[i * 3], size)).append("\" y=\"")
+					.append(denormalize(h[i * 3 + 1], size))
+					.append("\" radius=\"")
+					.append(Math.round(h[i * 3 + 2] * size / 2))
+					.append("\" />\n");
+		xml.append("  </holes>\n");
+		xml.append("</maze>\n");
+
+		return xml.toString().getBytes("UTF-8");
+	}
+
+	/** Maps a coordinate back from the (-1, 1) space, in maze units. */
+	private static int denormalize(float coordinate, float size) {
+		return Math.round((coordinate + 1) * size / 2);
+	}
+
+	/** Maps a coordinate to the (-1, 1) space. */
+	private static float normalize(float coordinate, float size) {
+		return ((coordinate * 2) / size) - 1;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.benchmarks;
+
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.util.Broadphase;
+import it.zavo.maze.util.Status;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Maze#checkWallsCollisions(float[], float[], float[], float)
+ * checkWallsCollisions} and {@link Maze#checkHolesCollision(float[])
+ * checkHolesCollision} on every broadphase, for the bundled mazes and for
+ * synthetic mazes from 10 to 100k walls, with the ball in different places.
+ * 
+ * @author Maze-Android contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+	/**
+	 * the number of random positions cycled through by the
+	 * <code>random</code> position.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int RANDOM_POSITIONS = 1024;
+
+	@Param({ "maze01", "maze02", "synthetic-10", "synthetic-100",
+			"synthetic-1000", "synthetic-10000", "synthetic-100000" })
+	public String maze;
+
+	@Param({ "BRUTE_FORCE", "GRID", "TREE" })
+	public Broadphase broadphase;
+
+	/*
+	 * start: the starting point; goal: on the goal; center: the center of
+	 * the board; random: a different random point on every call.
+	 */
+	@Param({ "start", "goal", "center", "random" })
+	public String position;
+
+	private Maze m;
+	private float[] positions;
+	private int next = 0;
+
+	private float[] ball = new float[2];
+	private float[] speed = new float[2];
+	private float[] acceleration = new float[2];
+
+	/**
+	 * Loads the maze and computes the positions of the ball.
+	 * 
+	 * @throws Exception
+	 *             if the maze can't be loaded.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		MazeData data = BenchmarkMazes.load(maze);
+		m = new Maze(data);
+		m.setBroadphase(broadphase);
+
+		if (position.equals("random")) {
+			Random random = new Random(1);
+			positions = new float[RANDOM_POSITIONS * 2];
+			for (int i = 0; i < positions.length; i++)
+				positions[i] = random.nextFloat() * 2 - 1;
+		} else if (position.equals("goal")) {
+			float[] holes = data.getHoles();
+			positions = new float[] { 0.0f, 0.0f };
+			for (int i = 0; i < data.getHolesCount(); i++)
+				if (data.isGoal(i)) {
+					positions = new float[] { holes[i * 3], holes[i * 3 + 1] };
+					break;
+				}
+		} else if (position.equals("center"))
+			positions = new float[] { 0.0f, 0.0f };
+		else
+			positions = data.getStart();
+	}
+
+	/**
+	 * Moves the ball to the next position and resets its motion, since the
+	 * collision checks modify them.
+	 */
+	private void place() {
+		ball[0] = positions[next];
+		ball[1] = positions[next + 1];
+		next = (next + 2) % positions.length;
+
+		speed[0] = 0.001f;
+		speed[1] = 0.001f;
+		acceleration[0] = 0.0f;
+		acceleration[1] = 0.0f;
+	}
+
+	/**
+	 * Checks the walls.
+	 * 
+	 * @return whether a collision was found, so the call is not optimized
+	 *         away.
+	 */
+	@Benchmark
+	public boolean walls() {
+		place();
+		return m.checkWallsCollisions(ball, speed, acceleration, 0.53f);
+	}
+
+	/**
+	 * Checks the holes.
+	 * 
+	 * @return the resulting status, so the call is not optimized away.
+	 */
+	@Benchmark
+	public Status holes() {
+		place();
+		return m.checkHolesCollision(ball);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.benchmarks;
+
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.util.Xml;
+import it.zavo.maze.util.XmlParser;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link XmlParser#DOM DOM} and the {@link XmlParser#STREAMING
+ * streaming} parsers of the maze files on a synthetic maze.
+ * <p>
+ * The parse time is measured by JMH, and the allocation by
+ * <code>-prof gc</code>. The peak heap, which JMH doesn't report, is measured
+ * by {@link #main(String[]) main}:
+ * 
+ * <pre>
+ * java -cp benchmarks/bin:bin/classes:android.jar:lib/* -Xmn1g -XX:-UseTLAB \
+ *         it.zavo.maze.benchmarks.ParserBenchmark [walls]
+ * </pre>
+ * 
+ * @author Maze-Android contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+	@Param({ "10000" })
+	public int walls;
+
+	@Param({ "DOM", "STREAMING" })
+	public XmlParser parser;
+
+	private byte[] xml;
+
+	/**
+	 * Generates the maze file.
+	 * 
+	 * @throws Exception
+	 *             if the file can't be generated.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		xml = BenchmarkMazes.toXml(BenchmarkMazes.generate(walls, 1));
+	}
+
+	/**
+	 * Parses the maze file.
+	 * 
+	 * @return the data of the maze, so the call is not optimized away.
+	 * 
+	 * @throws Exception
+	 *             if the file can't be parsed.
+	 */
+	@Benchmark
+	public MazeData parse() throws Exception {
+		return Xml.parseMaze(new ByteArrayInputStream(xml), parser);
+	}
+
+	/**
+	 * Prints the parse time and the peak heap of both the parsers. The young
+	 * generation should be large enough to hold a whole parse, so that no
+	 * collection happens in the middle and the peak includes all the garbage
+	 * and the DOM tree, and the thread local buffers should be disabled, as
+	 * the heap usage counts them whole.
+	 * 
+	 * @param args
+	 *            the number of walls of the maze, 10000 if missing.
+	 * 
+	 * @throws Exception
+	 *             if the maze can't be parsed.
+	 */
+	public static void main(String[] args) throws Exception {
+		ParserBenchmark benchmark = new ParserBenchmark();
+		benchmark.walls = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		benchmark.setup();
+		System.out.printf("%d walls, %d bytes%n", benchmark.walls,
+				benchmark.xml.length);
+
+		for (XmlParser parser : XmlParser.values()) {
+			benchmark.parser = parser;
+
+			// warms up
+			for (int i = 0; i < 20; i++)
+				benchmark.parse();
+
+			System.gc();
+			long collections = collections();
+			long base = heap();
+			long begin = System.nanoTime();
+			MazeData data = benchmark.parse();
+			long elapsed = System.nanoTime() - begin;
+			long peak = heap() - base;
+
+			System.out.printf("%-9s %8.2f ms %8d KB peak heap (%d walls)%s%n",
+					parser, elapsed / 1000000.0, peak / 1024,
+					data.getWallsCount(),
+					collections != collections() ? ", collected: use -Xmn"
+							: "");
+		}
+	}
+
+	/** Returns the heap in use, summed over all the heap pools. */
+	private static long heap() {
+		long total = 0;
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				total += pool.getUsage().getUsed();
+
+		return total;
+	}
+
+	/** Returns the number of collections done so far. */
+	private static long collections() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory
+				.getGarbageCollectorMXBeans())
+			total += gc.getCollectionCount();
+
+		return total;
+	}
+}
\ No newline at end of file
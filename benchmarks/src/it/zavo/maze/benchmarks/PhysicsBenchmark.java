@@ -0,0 +1,110 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.benchmarks;
+
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.physics.PhysicsWorld;
+import it.zavo.maze.util.Broadphase;
+import it.zavo.maze.util.Status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a whole frame of {@link PhysicsWorld#update(Maze, long) physics
+ * update}: the fixed steps with their motion, sweep and collision checks. The
+ * board is kept tilted, and the ball is put back on the start whenever the
+ * level ends.
+ * 
+ * @author Maze-Android contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+	@Param({ "maze01", "maze02", "synthetic-10", "synthetic-100",
+			"synthetic-1000", "synthetic-10000", "synthetic-100000" })
+	public String maze;
+
+	@Param({ "BRUTE_FORCE", "GRID", "TREE" })
+	public Broadphase broadphase;
+
+	/* the duration of a frame, in milliseconds */
+	@Param({ "16" })
+	public long frame;
+
+	/* the duration of a simulation step, in milliseconds (0 = variable) */
+	@Param({ "2", "0" })
+	public float timeStep;
+
+	private Maze m;
+	private PhysicsWorld world;
+	private long now = 0;
+
+	/**
+	 * Loads the maze and initializes the simulation.
+	 * 
+	 * @throws Exception
+	 *             if the maze can't be loaded.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		m = new Maze(BenchmarkMazes.load(maze));
+		m.setBroadphase(broadphase);
+
+		world = new PhysicsWorld();
+		world.setTimeStep(timeStep);
+		world.init(m, now);
+		world.updateOrientation(new float[] { 0.0f, -0.3f, -0.2f });
+	}
+
+	/**
+	 * Simulates a frame.
+	 * 
+	 * @return the resulting status, so the call is not optimized away.
+	 */
+	@Benchmark
+	public Status step() {
+		now += frame;
+		Status s = world.update(m, now);
+
+		if (s != Status.GAME_OK)
+			world.init(m, now);
+
+		return s;
+	}
+}
\ No newline at end of file
@@ -23,12 +23,19 @@
 package it.zavo.maze;
 
 import it.zavo.maze.android.SensorListener;
+import it.zavo.maze.graphics.FrameScheduler;
+import it.zavo.maze.graphics.Gl10Renderer;
+import it.zavo.maze.graphics.Gles20Renderer;
 import it.zavo.maze.graphics.Graphics;
+import it.zavo.maze.graphics.MazeRenderer;
+import it.zavo.maze.graphics.TextureManager;
+import it.zavo.maze.util.FrameRate;
 import it.zavo.maze.util.Status;
 import android.app.Activity;
-import android.hardware.Sensor;
+import android.app.ActivityManager;
 import android.hardware.SensorManager;
 import android.opengl.GLSurfaceView;
+import android.os.Build;
 import android.os.Bundle;
 import android.view.MotionEvent;
 import android.view.Window;
@@ -43,8 +50,10 @@ public class MazeActivity extends Activity {
 	SensorListener sensorListener;
 	SensorManager sm;
 	GLSurfaceView glSurface;
+	FrameScheduler scheduler;
+	Graphics graphics;
 
-	private static Status status;
+	private static volatile Status status;
 
 	/** Called when the activity is first created. */
 	@Override
@@ -61,21 +70,33 @@ public class MazeActivity extends Activity {
 		sensorListener = new SensorListener();
 
 		// registers the listeners
-		sm.registerListener(sensorListener,
-				sm.getDefaultSensor(Sensor.TYPE_ACCELEROMETER),
-				SensorManager.SENSOR_DELAY_GAME);
-		sm.registerListener(sensorListener,
-				sm.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD),
-				SensorManager.SENSOR_DELAY_GAME);
+		sensorListener.register(sm);
 
 		// sets the window to full screen with no title
 		this.requestWindowFeature(Window.FEATURE_NO_TITLE);
 		getWindow().setFlags(WindowManager.LayoutParams.FLAG_FULLSCREEN,
 				WindowManager.LayoutParams.FLAG_FULLSCREEN);
 
+		// draws with OpenGL ES 2.0 if the device supports it, with the fixed
+		// function pipeline otherwise; the OpenGL ES 2.0 renderer needs the
+		// buffer object calls added in Android 2.3
+		ActivityManager am = (ActivityManager) getSystemService(
+				ACTIVITY_SERVICE);
+		MazeRenderer renderer;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.GINGERBREAD
+				&& am.getDeviceConfigurationInfo().reqGlEsVersion >= 0x20000)
+			renderer = new Gles20Renderer();
+		else
+			renderer = new Gl10Renderer();
+
 		// creates the gl surface and sets the renderer
 		glSurface = new GLSurfaceView(this);
-		glSurface.setRenderer(new Graphics(this));
+		if (renderer.getGlEsVersion() >= 2)
+			glSurface.setEGLContextClientVersion(2);
+		graphics = new Graphics(this, renderer);
+		scheduler = new FrameScheduler(this, glSurface, FrameRate.FPS_60);
+		graphics.setFrameScheduler(scheduler);
+		glSurface.setRenderer(graphics);
 
 		// sets the content to the new gl surface
 		setContentView(glSurface);
@@ -86,6 +107,9 @@ public class MazeActivity extends Activity {
 	protected void onPause() {
 		glSurface.onPause();
 
+		// logs where the time of the last frames went
+		graphics.getMetrics().dump();
+
 		// unregisters listener
 		sm.unregisterListener(sensorListener);
 
@@ -99,13 +123,9 @@ public class MazeActivity extends Activity {
 
 		glSurface.onResume();
 
-		// registers this class as a listener for the orientation sensor
-		sm.registerListener(sensorListener,
-				sm.getDefaultSensor(Sensor.TYPE_ACCELEROMETER),
-				SensorManager.SENSOR_DELAY_GAME);
-		sm.registerListener(sensorListener,
-				sm.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD),
-				SensorManager.SENSOR_DELAY_GAME);
+		// registers the listener for the rotation vector sensor, or for
+		// the accelerometer and the magnetic field sensor
+		sensorListener.register(sm);
 	}
 
 	/** Called when the activity is no longer visible to the user. */
@@ -119,6 +139,33 @@ public class MazeActivity extends Activity {
 		super.onStop();
 	}
 
+	/** Called before the activity is destroyed. */
+	@Override
+	protected void onDestroy() {
+		// stops the thread building the next maze
+		graphics.shutdown();
+
+		// frees the decoded textures, the rendering thread is already paused
+		TextureManager.releasePixels();
+
+		super.onDestroy();
+	}
+
+	/** Called when the system is running low on memory. */
+	@Override
+	public void onLowMemory() {
+		// frees the decoded textures on the rendering thread, they will be
+		// decoded again if the OpenGL context is lost
+		glSurface.queueEvent(new Runnable() {
+			@Override
+			public void run() {
+				TextureManager.releasePixels();
+			}
+		});
+
+		super.onLowMemory();
+	}
+
 	/** Called when a touch event happens. */
 	@Override
 	public boolean onTouchEvent(MotionEvent event) {
@@ -133,6 +180,8 @@ public class MazeActivity extends Activity {
 			} else if (MazeActivity.status == Status.LEVEL_COMPLETE) {
 				MazeActivity.status = Status.INITIALIZE_NEW_LEVEL;
 			}
+			// starts drawing again if a message was shown
+			scheduler.wake();
 			
 			return true;
 		}
@@ -30,20 +30,135 @@ import android.hardware.SensorManager;
 
 /**
  * Receives notifications from the SensorManager when sensor values have
- * changed.
+ * changed, and turns them into the orientation of the device.
+ * <p>
+ * If the device has a rotation vector sensor, the orientation is computed
+ * directly from its quaternion. Otherwise, it's computed from the
+ * accelerometer and the magnetic field sensor. Either way, pitch and roll are
+ * smoothed by a low-pass filter, and every value is copied in buffers
+ * allocated once.
  * 
  * @author Marco Mandrioli
  */
 public class SensorListener implements SensorEventListener {
+	/**
+	 * the type of the rotation vector sensor, which is not in the SDK of
+	 * Android 2.2 (<code>Sensor.TYPE_ROTATION_VECTOR</code>, API level 9).
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int TYPE_ROTATION_VECTOR = 11;
+
+	/**
+	 * the type of the rotation vector sensor that doesn't use the magnetic
+	 * field (<code>Sensor.TYPE_GAME_ROTATION_VECTOR</code>, API level 18).
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int TYPE_GAME_ROTATION_VECTOR = 15;
+
+	/**
+	 * the default time constant of the low-pass filter, in milliseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final float DEFAULT_FILTER_TIME = 30.0f;
+
 	private float[] orientation = new float[3];
 	private float[] gravity = new float[3];
 	private float[] geomag = new float[3];
+	private boolean hasGravity = false;
+	private boolean hasGeomag = false;
 
 	private float[] rmat = new float[16];
+	// the orientation before filtering
+	private float[] sample = new float[3];
+
+	private boolean rotationVector = true;
+	private boolean usingRotationVector = false;
+
+	private float filterTime = DEFAULT_FILTER_TIME;
+	// the time of the last sample, 0 until the first one
+	private long timestamp = 0;
 
 	public SensorListener() {
 	}
 
+	/**
+	 * Registers this listener for the sensors of the device: the game
+	 * rotation vector or the rotation vector if available, unless disabled,
+	 * or the accelerometer and the magnetic field sensor.
+	 * 
+	 * @param sensorManager
+	 *            the sensor manager.
+	 * 
+	 * @return <code>true</code> if a rotation vector sensor is used,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean register(SensorManager sensorManager) {
+		// starts the filter again from the first sample
+		timestamp = 0;
+		hasGravity = false;
+		hasGeomag = false;
+
+		Sensor sensor = null;
+		if (rotationVector) {
+			sensor = sensorManager.getDefaultSensor(TYPE_GAME_ROTATION_VECTOR);
+			if (sensor == null)
+				sensor = sensorManager.getDefaultSensor(TYPE_ROTATION_VECTOR);
+		}
+
+		usingRotationVector = sensor != null
+				&& sensorManager.registerListener(this, sensor,
+						SensorManager.SENSOR_DELAY_GAME);
+
+		if (!usingRotationVector) {
+			sensorManager.registerListener(this,
+					sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER),
+					SensorManager.SENSOR_DELAY_GAME);
+			sensorManager.registerListener(this,
+					sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD),
+					SensorManager.SENSOR_DELAY_GAME);
+		}
+
+		return usingRotationVector;
+	}
+
+	/**
+	 * Tells if the orientation comes from a rotation vector sensor.
+	 * 
+	 * @return <code>true</code> if a rotation vector sensor was registered,
+	 *         <code>false</code> if the accelerometer and the magnetic field
+	 *         sensor were.
+	 */
+	public boolean isUsingRotationVector() {
+		return usingRotationVector;
+	}
+
+	/**
+	 * Enables or disables the rotation vector sensors. It takes effect the
+	 * next time the listener is registered.
+	 * 
+	 * @param enabled
+	 *            <code>false</code> to always use the accelerometer and the
+	 *            magnetic field sensor.
+	 */
+	public void setRotationVector(boolean enabled) {
+		rotationVector = enabled;
+	}
+
+	/**
+	 * Sets the time constant of the low-pass filter applied to pitch and
+	 * roll. The longer, the smoother and the slower the response.
+	 * 
+	 * @param millis
+	 *            the time constant in milliseconds, or 0 to disable the
+	 *            filter.
+	 */
+	public void setFilterTime(float millis) {
+		filterTime = millis;
+	}
+
 	/** Called when the accuracy of a sensor has changed. */
 	@Override
 	public void onAccuracyChanged(Sensor sensor, int accuracy) {
@@ -53,21 +168,108 @@ public class SensorListener implements SensorEventListener {
 	@Override
 	public void onSensorChanged(SensorEvent event) {
 		switch (event.sensor.getType()) {
+		case TYPE_ROTATION_VECTOR:
+		case TYPE_GAME_ROTATION_VECTOR:
+			computeOrientation(event.values);
+			break;
 		case Sensor.TYPE_ACCELEROMETER:
-			gravity = event.values.clone();
+			System.arraycopy(event.values, 0, gravity, 0, 3);
+			hasGravity = true;
+			if (!computeOrientation())
+				return;
 			break;
 		case Sensor.TYPE_MAGNETIC_FIELD:
-			geomag = event.values.clone();
+			System.arraycopy(event.values, 0, geomag, 0, 3);
+			hasGeomag = true;
+			if (!computeOrientation())
+				return;
 			break;
+		default:
+			return;
 		}
 
-		// if gravity and geomag have values then find rotation matrix
-		if (gravity != null && geomag != null)
-			// checks that the rotation matrix is found
-			if (SensorManager.getRotationMatrix(rmat, null, gravity, geomag))
-				orientation = SensorManager.getOrientation(rmat, orientation);
+		filter(event.timestamp);
 
 		// update data in Physics library
-		Physics.updateOrientation(orientation);
+		Physics.updateOrientation(orientation, event.timestamp);
+	}
+
+	/**
+	 * Computes the orientation from a rotation vector, as
+	 * <code>SensorManager.getRotationMatrixFromVector</code> followed by
+	 * <code>SensorManager.getOrientation</code> would, without the matrix.
+	 * 
+	 * @param values
+	 *            the values of the rotation vector event: x, y, z and
+	 *            optionally the scalar component of the unit quaternion.
+	 */
+	private void computeOrientation(float[] values) {
+		float x = values[0];
+		float y = values[1];
+		float z = values[2];
+		float w;
+		if (values.length >= 4)
+			w = values[3];
+		else {
+			w = 1 - x * x - y * y - z * z;
+			w = (w > 0) ? (float) Math.sqrt(w) : 0.0f;
+		}
+
+		// the elements of the rotation matrix needed by the angles
+		float r1 = 2 * x * y - 2 * z * w;
+		float r4 = 1 - 2 * x * x - 2 * z * z;
+		float r6 = 2 * x * z - 2 * y * w;
+		float r7 = 2 * y * z + 2 * x * w;
+		float r8 = 1 - 2 * x * x - 2 * y * y;
+
+		// azimuth, pitch and roll
+		sample[0] = (float) Math.atan2(r1, r4);
+		sample[1] = (float) Math.asin(Math.max(-1.0f, Math.min(1.0f, -r7)));
+		sample[2] = (float) Math.atan2(-r6, r8);
+	}
+
+	/**
+	 * Computes the orientation from the last values of the accelerometer and
+	 * the magnetic field sensor.
+	 * 
+	 * @return <code>true</code> if the orientation was computed,
+	 *         <code>false</code> if a sensor has no values yet or the device
+	 *         is in free fall.
+	 */
+	private boolean computeOrientation() {
+		// if gravity and geomag have values then find rotation matrix
+		if (!hasGravity || !hasGeomag)
+			return false;
+
+		// checks that the rotation matrix is found
+		if (!SensorManager.getRotationMatrix(rmat, null, gravity, geomag))
+			return false;
+
+		SensorManager.getOrientation(rmat, sample);
+		return true;
+	}
+
+	/**
+	 * Moves pitch and roll towards the last sample, by how much time passed
+	 * since the previous one. The azimuth, which wraps around, is not
+	 * filtered.
+	 * 
+	 * @param time
+	 *            the time of the sample, in nanoseconds.
+	 */
+	private void filter(long time) {
+		orientation[0] = sample[0];
+
+		if (timestamp == 0 || filterTime <= 0 || time <= timestamp) {
+			orientation[1] = sample[1];
+			orientation[2] = sample[2];
+		} else {
+			float dt = (time - timestamp) / 1000000.0f;
+			float alpha = dt / (filterTime + dt);
+			orientation[1] += alpha * (sample[1] - orientation[1]);
+			orientation[2] += alpha * (sample[2] - orientation[2]);
+		}
+
+		timestamp = time;
 	}
 }
\ No newline at end of file
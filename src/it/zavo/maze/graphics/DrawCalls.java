@@ -0,0 +1,58 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+/**
+ * Static class counting the draw calls issued to OpenGL in every frame. It
+ * must only be used by the rendering thread.
+ * 
+ * @author Maze-Android contributors
+ */
+public class DrawCalls {
+	private static int current = 0;
+	private static int last = 0;
+
+	/**
+	 * Counts a draw call in the current frame.
+	 */
+	public static void add() {
+		current++;
+	}
+
+	/**
+	 * Ends the current frame, and starts counting the next one.
+	 */
+	public static void endFrame() {
+		last = current;
+		current = 0;
+	}
+
+	/**
+	 * Returns the number of draw calls of the last completed frame.
+	 * 
+	 * @return the number of draw calls.
+	 */
+	public static int getLastFrame() {
+		return last;
+	}
+}
\ No newline at end of file
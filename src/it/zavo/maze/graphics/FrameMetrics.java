@@ -0,0 +1,259 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import android.util.Log;
+
+/**
+ * Records where the time of every frame goes, in a ring buffer of the last
+ * frames. A frame is recorded by the rendering thread between
+ * {@link #beginFrame()} and {@link #endFrame()}, without allocating and
+ * without locking; the summary of the recorded frames, with the 50th, 95th
+ * and 99th percentiles of every metric, can be taken from any thread.
+ * <p>
+ * The frames are published by a counter written after the values of the
+ * frame. A reader copies the frames preceding the counter, then reads it
+ * again and drops the frames that the writer may have overwritten in the
+ * meantime.
+ * 
+ * @author Maze-Android contributors
+ */
+public class FrameMetrics {
+	/**
+	 * the time spent in the physics update, in nanoseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int PHYSICS = 0;
+
+	/**
+	 * the time spent drawing the maze and the ball, in nanoseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int MAZE = 1;
+
+	/**
+	 * the time spent drawing the board and the messages, in nanoseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int OVERLAY = 2;
+
+	/**
+	 * the number of walls tested for collisions.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int WALLS = 3;
+
+	/**
+	 * the number of draw calls issued.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int DRAW_CALLS = 4;
+
+	/**
+	 * the whole time of the frame, in nanoseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int FRAME = 5;
+
+	/**
+	 * the number of metrics recorded for every frame.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int METRICS = 6;
+
+	/**
+	 * the number of frames kept by default, about 4 seconds at 60 fps.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * the tag of the log messages.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String TAG = "Maze";
+
+	private static final String[] NAMES = { "physics", "maze", "overlay",
+			"walls", "draw calls", "frame" };
+	// whether the metric is a time, printed in milliseconds
+	private static final boolean[] TIMES = { true, true, true, false, false,
+			true };
+
+	private final int capacity;
+	// the metrics of frame i are at (i % capacity) * METRICS
+	private final AtomicLongArray values;
+	// the number of frames recorded, written after their values
+	private volatile long frames = 0;
+
+	// the frame being recorded, only used by the rendering thread
+	private int row = 0;
+	private long begin;
+
+	/**
+	 * Constructs a registry keeping the given number of frames.
+	 * 
+	 * @param capacity
+	 *            the number of frames kept.
+	 */
+	public FrameMetrics(int capacity) {
+		this.capacity = capacity;
+		values = new AtomicLongArray(capacity * METRICS);
+	}
+
+	/**
+	 * Starts recording a frame, with all the metrics set to 0.
+	 */
+	public void beginFrame() {
+		row = (int) (frames % capacity) * METRICS;
+		for (int i = 0; i < METRICS; i++)
+			values.set(row + i, 0);
+
+		begin = System.nanoTime();
+	}
+
+	/**
+	 * Adds a value to a metric of the current frame.
+	 * 
+	 * @param metric
+	 *            the metric, e.g. {@link #PHYSICS}.
+	 * @param value
+	 *            the value to add.
+	 */
+	public void add(int metric, long value) {
+		values.set(row + metric, values.get(row + metric) + value);
+	}
+
+	/**
+	 * Ends the current frame, recording its whole time, and publishes it.
+	 */
+	public void endFrame() {
+		values.set(row + FRAME, System.nanoTime() - begin);
+		frames = frames + 1;
+	}
+
+	/**
+	 * Returns the number of frames recorded since the registry was created.
+	 * 
+	 * @return the number of frames.
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Returns the values of a metric in the recorded frames still kept, in
+	 * ascending order.
+	 * 
+	 * @param metric
+	 *            the metric, e.g. {@link #PHYSICS}.
+	 * 
+	 * @return the sorted values, one per frame.
+	 */
+	public long[] getValues(int metric) {
+		long end = frames;
+		long start = Math.max(0, end - capacity);
+
+		long[] copy = new long[(int) (end - start)];
+		for (long i = start; i < end; i++)
+			copy[(int) (i - start)] = values.get((int) (i % capacity)
+					* METRICS + metric);
+
+		// the frame being recorded may have overwritten the oldest ones
+		long first = Math.max(start, frames - capacity + 1);
+		int dropped = (int) Math.min(first - start, copy.length);
+		long[] sorted = new long[copy.length - dropped];
+		System.arraycopy(copy, dropped, sorted, 0, sorted.length);
+		Arrays.sort(sorted);
+
+		return sorted;
+	}
+
+	/**
+	 * Returns a percentile of sorted values, by the nearest rank.
+	 * 
+	 * @param sorted
+	 *            the values, in ascending order.
+	 * @param percentile
+	 *            the percentile, from 0 to 100.
+	 * 
+	 * @return the percentile, or 0 if there are no values.
+	 */
+	public static long getPercentile(long[] sorted, float percentile) {
+		if (sorted.length == 0)
+			return 0;
+
+		int rank = (int) Math.ceil(percentile / 100.0f * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+	}
+
+	/**
+	 * Returns the 50th, 95th and 99th percentiles of every metric in the
+	 * recorded frames still kept, as a string suitable for logging.
+	 * 
+	 * @return the summary of the metrics.
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(frames).append(" frames");
+
+		for (int metric = 0; metric < METRICS; metric++) {
+			long[] sorted = getValues(metric);
+			summary.append(", ").append(NAMES[metric]);
+
+			float[] percentiles = { 50.0f, 95.0f, 99.0f };
+			for (int i = 0; i < percentiles.length; i++) {
+				long value = getPercentile(sorted, percentiles[i]);
+				summary.append(i == 0 ? " " : "/");
+				if (TIMES[metric])
+					summary.append(String.format("%.2f", value / 1000000.0f));
+				else
+					summary.append(value);
+			}
+			if (TIMES[metric])
+				summary.append(" ms");
+		}
+
+		return summary.append(" (p50/p95/p99)").toString();
+	}
+
+	/**
+	 * Logs the summary of the metrics.
+	 * 
+	 * @see #getSummary()
+	 */
+	public void dump() {
+		Log.d(TAG, "frame metrics: " + getSummary());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import it.zavo.maze.util.FrameRate;
+
+import android.app.Activity;
+import android.opengl.GLSurfaceView;
+import android.view.WindowManager;
+
+/**
+ * Decides when the frames are drawn. During the game the frames are paced to
+ * the target {@link FrameRate frame rate}; while the frame can't change, e.g.
+ * a message waiting for a tap, nothing is drawn and the screen is allowed to
+ * turn off.
+ * <p>
+ * The pacing sleeps the rendering thread before each frame, until a fixed
+ * interval has passed since the previous one. The frames stay on the same
+ * grid unless they're late, so that they keep a steady rhythm with the
+ * display refresh.
+ * 
+ * @author Maze-Android contributors
+ */
+public class FrameScheduler {
+	/**
+	 * the time a frame is started before its deadline, to catch the display
+	 * refresh, in nanoseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final long SLACK = 2000000L;
+
+	private Activity activity;
+	private GLSurfaceView view;
+
+	private volatile FrameRate frameRate;
+	// the time the next frame is due, 0 to start a new grid
+	private long next = 0;
+	private boolean idle = false;
+
+	/**
+	 * Constructs the scheduler of a surface.
+	 * 
+	 * @param activity
+	 *            the activity whose window shows the surface.
+	 * @param view
+	 *            the GL surface.
+	 * @param frameRate
+	 *            the target frame rate.
+	 */
+	public FrameScheduler(Activity activity, GLSurfaceView view,
+			FrameRate frameRate) {
+		this.activity = activity;
+		this.view = view;
+		this.frameRate = frameRate;
+	}
+
+	/**
+	 * Waits until the next frame is due. This should be called by the
+	 * rendering thread at the beginning of every frame.
+	 */
+	public void beginFrame() {
+		// at the display rate, the buffer swap already paces the frames
+		if (frameRate == FrameRate.FPS_60) {
+			next = 0;
+			return;
+		}
+
+		long interval = 1000000000L / frameRate.fps;
+		long now = System.nanoTime();
+
+		if (next != 0 && next - SLACK > now) {
+			long wait = next - SLACK - now;
+			try {
+				Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			now = System.nanoTime();
+		}
+
+		// late frames start a new grid, instead of rushing to catch up
+		if (next == 0 || now - next > interval)
+			next = now + interval;
+		else
+			next += interval;
+	}
+
+	/**
+	 * Stops drawing, because the last frame won't change until
+	 * {@link #wake()} is called, and lets the screen turn off. This should be
+	 * called by the rendering thread.
+	 */
+	public synchronized void idle() {
+		if (idle)
+			return;
+		idle = true;
+		next = 0;
+
+		view.setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+		setKeepScreenOn(false);
+	}
+
+	/**
+	 * Starts drawing continuously again, and keeps the screen on.
+	 */
+	public synchronized void wake() {
+		if (!idle)
+			return;
+		idle = false;
+
+		view.setRenderMode(GLSurfaceView.RENDERMODE_CONTINUOUSLY);
+		view.requestRender();
+		setKeepScreenOn(true);
+	}
+
+	/** Sets or clears the flag keeping the screen on, on the UI thread. */
+	private void setKeepScreenOn(final boolean on) {
+		activity.runOnUiThread(new Runnable() {
+			@Override
+			public void run() {
+				if (on)
+					activity.getWindow().addFlags(
+							WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
+				else
+					activity.getWindow().clearFlags(
+							WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
+			}
+		});
+	}
+
+	/**
+	 * Tells if the drawing is stopped.
+	 * 
+	 * @return <code>true</code> if no frame is drawn until {@link #wake()} is
+	 *         called.
+	 */
+	public synchronized boolean isIdle() {
+		return idle;
+	}
+
+	/**
+	 * Returns the target frame rate during the game.
+	 * 
+	 * @return the target frame rate.
+	 */
+	public FrameRate getFrameRate() {
+		return frameRate;
+	}
+
+	/**
+	 * Sets the target frame rate during the game, e.g. a lower one to save
+	 * battery on long sessions.
+	 * 
+	 * @param frameRate
+	 *            the target frame rate.
+	 */
+	public void setFrameRate(FrameRate frameRate) {
+		this.frameRate = frameRate;
+	}
+}
\ No newline at end of file
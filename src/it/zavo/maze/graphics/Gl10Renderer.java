@@ -0,0 +1,157 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import it.zavo.maze.graphics.shape.Rectangle;
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.util.Tex;
+
+import javax.microedition.khronos.opengles.GL10;
+
+import android.content.Context;
+import android.opengl.GLU;
+
+/**
+ * The OpenGL ES 1.x renderer, with the fixed function pipeline. The shapes
+ * are drawn through the {@link GlState} cache, and the board, the walls and
+ * the holes are cached in a {@link StaticLayer}.
+ * <p>
+ * It's the fallback for the devices without OpenGL ES 2.0.
+ * 
+ * @author Maze-Android contributors
+ */
+public class Gl10Renderer implements MazeRenderer {
+	private Maze maze = null;
+	private Rectangle board;
+	private StaticLayer layer;
+
+	/**
+	 * Constructs the renderer.
+	 */
+	public Gl10Renderer() {
+		// creates a new rectangle for the background of the board and the messages
+		board = new Rectangle(-1.0f, 1.0f, -1.0f, 1.0f, 1.0f, 1.0f, 0.0f, 1.0f);
+		// the board, the walls and the holes are rendered once per level
+		layer = new StaticLayer(board);
+	}
+
+	@Override
+	public int getGlEsVersion() {
+		return 1;
+	}
+
+	@Override
+	public void onSurfaceCreated(GL10 gl, Context context) {
+		// the state of the new context is unknown
+		GlState.reset();
+
+		// background clear color
+		gl.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+
+		// enables the blending
+		gl.glEnable(GL10.GL_BLEND);
+		// sets the blending function
+		gl.glBlendFunc(GL10.GL_SRC_ALPHA, GL10.GL_ONE_MINUS_SRC_ALPHA);
+		// enables 2D textures
+		gl.glEnable(GL10.GL_TEXTURE_2D);
+
+		// loads the textures (every time the EGL context is lost, the OpenGL resources are freed.
+		TextureManager.loadTextures(gl, context);
+		// the buffers of the maze and the static layer are created again on
+		// the next draw
+		if (maze != null)
+			maze.invalidate();
+		layer.invalidate();
+	}
+
+	@Override
+	public void onSurfaceChanged(GL10 gl, int width, int height) {
+		// sets the viewport
+		gl.glViewport(0, 0, width, height);
+		// switches to the projection matrix stack
+		gl.glMatrixMode(GL10.GL_PROJECTION);
+		// loads identity matrix
+		gl.glLoadIdentity();
+
+		// scales the width to get equal proportions on x and y (thus making the
+		// x = (-1, 1), y = (1, -1) region squared)
+		gl.glScalef((float) height / (float) width, 1, 1);
+
+		// sets up a 2D orthographic projection reducing the (-1, 1) area of 2 *
+		// BORDER (thus leaving a border around the board)
+		GLU.gluOrtho2D(gl, -1.0f - BORDER, 1.0f + BORDER, 1.0f + BORDER, -1.0f
+				- BORDER);
+
+		// switches back to the modelview matrix stack
+		gl.glMatrixMode(GL10.GL_MODELVIEW);
+		// loads identity matrix
+		gl.glLoadIdentity();
+
+		// the board is as high as the (-1, 1) region, within the border
+		layer.setSize(gl, width, height,
+				Math.round(height / (1.0f + BORDER)));
+	}
+
+	@Override
+	public void setMaze(GL10 gl, Maze previous, Maze maze) {
+		this.maze = maze;
+
+		// frees the OpenGL buffers of the previous maze
+		if (previous != null && previous != maze)
+			previous.release(gl);
+		// renders the walls and the holes of the new maze
+		layer.redraw();
+	}
+
+	@Override
+	public void clear(GL10 gl) {
+		// clears to the background color
+		gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+	}
+
+	@Override
+	public void drawBoard(GL10 gl, Tex tex) {
+		board.draw(gl, tex);
+	}
+
+	@Override
+	public void drawMaze(GL10 gl) {
+		layer.draw(gl, maze);
+	}
+
+	@Override
+	public void drawBall(GL10 gl, float x, float y) {
+		maze.drawBall(gl, x, y);
+	}
+
+	@Override
+	public void endFrame() {
+		GlState.endFrame();
+	}
+
+	@Override
+	public String getStatistics() {
+		return "state calls: " + GlState.getIssued() + " issued, "
+				+ GlState.getSkipped() + " skipped";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,379 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import java.nio.Buffer;
+
+import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11;
+
+/**
+ * Static class that keeps track of the OpenGL state set by the shapes, so
+ * that the calls that wouldn't change it are not issued. The shapes declare
+ * the state they need before drawing, instead of restoring it after.
+ * <p>
+ * It must only be used by the rendering thread, and all the state it tracks
+ * must be changed through it.
+ * 
+ * @author Maze-Android contributors
+ */
+public class GlState {
+	/** the client states tracked, in the order of their flags. */
+	private static final int[] ARRAYS = new int[] { GL10.GL_VERTEX_ARRAY,
+			GL10.GL_TEXTURE_COORD_ARRAY, GL10.GL_COLOR_ARRAY };
+
+	// whether each client state is known, and its value
+	private static boolean[] arraysKnown = new boolean[ARRAYS.length];
+	private static boolean[] arrays = new boolean[ARRAYS.length];
+
+	private static boolean colorKnown = false;
+	private static float[] color = new float[4];
+
+	private static boolean textureKnown = false;
+	private static int texture;
+
+	// the bound array and element array buffer objects
+	private static int arrayBuffer = 0;
+	private static int elementBuffer = 0;
+
+	/*
+	 * the source of each pointer: a client buffer and its position, or a
+	 * buffer object (with a null client buffer) and an offset. A negative
+	 * buffer object means unknown.
+	 */
+	private static Buffer[] pointerBuffers = new Buffer[ARRAYS.length];
+	private static int[] pointerOffsets = new int[ARRAYS.length];
+	private static int[] pointerObjects = new int[] { -1, -1, -1 };
+
+	// the calls of the current frame and of the last completed one
+	private static int issued = 0;
+	private static int skipped = 0;
+	private static int lastIssued = 0;
+	private static int lastSkipped = 0;
+
+	/**
+	 * Forgets all the state, which is unknown in a new OpenGL context. This
+	 * should be called by the
+	 * {@link Graphics#onSurfaceCreated(GL10, javax.microedition.khronos.egl.EGLConfig)
+	 * onSurfaceCreated(...)}.
+	 */
+	public static void reset() {
+		for (int i = 0; i < ARRAYS.length; i++) {
+			arraysKnown[i] = false;
+			pointerBuffers[i] = null;
+			pointerObjects[i] = -1;
+		}
+		colorKnown = false;
+		textureKnown = false;
+
+		// no buffer object is bound in a new context
+		arrayBuffer = 0;
+		elementBuffer = 0;
+	}
+
+	/**
+	 * Enables or disables the vertex, texture coordinates and color arrays.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param vertices
+	 *            <code>true</code> to enable the vertex array.
+	 * @param texCoords
+	 *            <code>true</code> to enable the texture coordinates array.
+	 * @param colors
+	 *            <code>true</code> to enable the color array.
+	 */
+	public static void clientStates(GL10 gl, boolean vertices,
+			boolean texCoords, boolean colors) {
+		clientState(gl, 0, vertices);
+		clientState(gl, 1, texCoords);
+		clientState(gl, 2, colors);
+
+		// the current color is undefined after drawing with a color array
+		if (colors)
+			colorKnown = false;
+	}
+
+	/** Enables or disables a client state. */
+	private static void clientState(GL10 gl, int i, boolean enabled) {
+		if (arraysKnown[i] && arrays[i] == enabled) {
+			skipped++;
+			return;
+		}
+
+		if (enabled)
+			gl.glEnableClientState(ARRAYS[i]);
+		else
+			gl.glDisableClientState(ARRAYS[i]);
+		arraysKnown[i] = true;
+		arrays[i] = enabled;
+		issued++;
+	}
+
+	/**
+	 * Sets the current color.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param red
+	 *            the red channel of the color.
+	 * @param green
+	 *            the green channel of the color.
+	 * @param blue
+	 *            the blue channel of the color.
+	 * @param alpha
+	 *            the alpha channel (transparency) of the color.
+	 */
+	public static void color(GL10 gl, float red, float green, float blue,
+			float alpha) {
+		if (colorKnown && color[0] == red && color[1] == green
+				&& color[2] == blue && color[3] == alpha) {
+			skipped++;
+			return;
+		}
+
+		gl.glColor4f(red, green, blue, alpha);
+		colorKnown = true;
+		color[0] = red;
+		color[1] = green;
+		color[2] = blue;
+		color[3] = alpha;
+		issued++;
+	}
+
+	/**
+	 * Binds a 2D texture.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param texture
+	 *            the name of the texture.
+	 */
+	public static void bindTexture(GL10 gl, int texture) {
+		if (textureKnown && GlState.texture == texture) {
+			skipped++;
+			return;
+		}
+
+		gl.glBindTexture(GL10.GL_TEXTURE_2D, texture);
+		textureKnown = true;
+		GlState.texture = texture;
+		issued++;
+	}
+
+	/**
+	 * Binds a buffer object.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param target
+	 *            {@link GL11#GL_ARRAY_BUFFER} or
+	 *            {@link GL11#GL_ELEMENT_ARRAY_BUFFER}.
+	 * @param buffer
+	 *            the name of the buffer object, or 0 to unbind.
+	 */
+	public static void bindBuffer(GL11 gl, int target, int buffer) {
+		int bound = target == GL11.GL_ARRAY_BUFFER ? arrayBuffer
+				: elementBuffer;
+		if (bound == buffer) {
+			skipped++;
+			return;
+		}
+
+		gl.glBindBuffer(target, buffer);
+		if (target == GL11.GL_ARRAY_BUFFER)
+			arrayBuffer = buffer;
+		else
+			elementBuffer = buffer;
+		issued++;
+	}
+
+	/**
+	 * Forgets a deleted texture, which is unbound by OpenGL.
+	 * 
+	 * @param texture
+	 *            the name of the deleted texture.
+	 */
+	public static void deletedTexture(int texture) {
+		if (textureKnown && GlState.texture == texture)
+			GlState.texture = 0;
+	}
+
+	/**
+	 * Forgets a deleted buffer object, which is unbound by OpenGL.
+	 * 
+	 * @param buffer
+	 *            the name of the deleted buffer object.
+	 */
+	public static void deletedBuffer(int buffer) {
+		if (buffer == 0)
+			return;
+
+		if (arrayBuffer == buffer)
+			arrayBuffer = 0;
+		if (elementBuffer == buffer)
+			elementBuffer = 0;
+		for (int i = 0; i < ARRAYS.length; i++)
+			if (pointerObjects[i] == buffer)
+				pointerObjects[i] = -1;
+	}
+
+	/**
+	 * Makes gl point to a buffer of vertices, two floats (x, y) each, from
+	 * its current position.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param buffer
+	 *            the vertex buffer.
+	 */
+	public static void vertexPointer(GL10 gl, Buffer buffer) {
+		if (pointer(gl, 0, buffer))
+			gl.glVertexPointer(2, GL10.GL_FLOAT, 0, buffer);
+	}
+
+	/**
+	 * Makes gl point to the vertices, two floats (x, y) each, in the bound
+	 * array buffer object.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param offset
+	 *            the offset of the first vertex, in bytes.
+	 */
+	public static void vertexPointer(GL11 gl, int offset) {
+		if (pointer(gl, 0, offset))
+			gl.glVertexPointer(2, GL10.GL_FLOAT, 0, offset);
+	}
+
+	/**
+	 * Makes gl point to a buffer of texture coordinates, two floats (s, t)
+	 * each, from its current position.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param buffer
+	 *            the texture coordinates buffer.
+	 */
+	public static void texCoordPointer(GL10 gl, Buffer buffer) {
+		if (pointer(gl, 1, buffer))
+			gl.glTexCoordPointer(2, GL10.GL_FLOAT, 0, buffer);
+	}
+
+	/**
+	 * Makes gl point to a buffer of colors, four unsigned bytes (red, green,
+	 * blue, alpha) each, from its current position.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param buffer
+	 *            the color buffer.
+	 */
+	public static void colorPointer(GL10 gl, Buffer buffer) {
+		if (pointer(gl, 2, buffer))
+			gl.glColorPointer(4, GL10.GL_UNSIGNED_BYTE, 0, buffer);
+	}
+
+	/**
+	 * Makes gl point to the colors, four unsigned bytes (red, green, blue,
+	 * alpha) each, in the bound array buffer object.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param offset
+	 *            the offset of the first color, in bytes.
+	 */
+	public static void colorPointer(GL11 gl, int offset) {
+		if (pointer(gl, 2, offset))
+			gl.glColorPointer(4, GL10.GL_UNSIGNED_BYTE, 0, offset);
+	}
+
+	/**
+	 * Tells if a pointer to a client buffer must be set, unbinding the buffer
+	 * objects if needed.
+	 */
+	private static boolean pointer(GL10 gl, int i, Buffer buffer) {
+		// a client pointer needs no buffer object bound, and the client
+		// indices drawn with it neither
+		if (arrayBuffer != 0)
+			bindBuffer((GL11) gl, GL11.GL_ARRAY_BUFFER, 0);
+		if (elementBuffer != 0)
+			bindBuffer((GL11) gl, GL11.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+		if (pointerObjects[i] == 0 && pointerBuffers[i] == buffer
+				&& pointerOffsets[i] == buffer.position()) {
+			skipped++;
+			return false;
+		}
+
+		pointerObjects[i] = 0;
+		pointerBuffers[i] = buffer;
+		pointerOffsets[i] = buffer.position();
+		issued++;
+		return true;
+	}
+
+	/** Tells if a pointer to the bound buffer object must be set. */
+	private static boolean pointer(GL11 gl, int i, int offset) {
+		if (pointerObjects[i] == arrayBuffer && pointerBuffers[i] == null
+				&& pointerOffsets[i] == offset) {
+			skipped++;
+			return false;
+		}
+
+		pointerObjects[i] = arrayBuffer;
+		pointerBuffers[i] = null;
+		pointerOffsets[i] = offset;
+		issued++;
+		return true;
+	}
+
+	/**
+	 * Ends the current frame, and starts counting the calls of the next one.
+	 */
+	public static void endFrame() {
+		lastIssued = issued;
+		lastSkipped = skipped;
+		issued = 0;
+		skipped = 0;
+	}
+
+	/**
+	 * Returns the number of state calls issued in the last completed frame.
+	 * 
+	 * @return the number of calls issued.
+	 */
+	public static int getIssued() {
+		return lastIssued;
+	}
+
+	/**
+	 * Returns the number of redundant state calls skipped in the last
+	 * completed frame.
+	 * 
+	 * @return the number of calls skipped.
+	 */
+	public static int getSkipped() {
+		return lastSkipped;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,545 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import it.zavo.maze.graphics.shape.Batch;
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.util.Tex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import javax.microedition.khronos.opengles.GL10;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.opengl.GLES20;
+import android.opengl.GLUtils;
+import android.opengl.Matrix;
+import android.util.Log;
+
+/**
+ * The OpenGL ES 2.0 renderer. All the geometry is kept in vertex buffer
+ * objects, and drawn by two shader programs: one for the textured quads of
+ * the board, the messages and the ball, one for the colored walls and holes.
+ * The ball is placed by the matrix uniform, instead of the matrix stack.
+ * <p>
+ * The calls go through {@link GLES20}, so the GL objects given to the methods
+ * are not used. The buffer objects are drawn with the offset versions of
+ * <code>glVertexAttribPointer</code> and <code>glDrawElements</code>, which
+ * were added in Android 2.3 (API level 9), so this renderer must not be used
+ * on older versions.
+ * 
+ * @author Maze-Android contributors
+ */
+public class Gles20Renderer implements MazeRenderer {
+	/**
+	 * the tag of the log messages.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String TAG = "Maze";
+
+	/**
+	 * the vertex shader of the textured quads.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String TEXTURE_VERTEX_SHADER = ""
+			+ "uniform mat4 u_Matrix;"
+			+ "attribute vec4 a_Position;"
+			+ "attribute vec2 a_TexCoord;"
+			+ "varying vec2 v_TexCoord;"
+			+ "void main() {"
+			+ "  v_TexCoord = a_TexCoord;"
+			+ "  gl_Position = u_Matrix * a_Position;"
+			+ "}";
+
+	/**
+	 * the fragment shader of the textured quads, modulated by a color.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String TEXTURE_FRAGMENT_SHADER = ""
+			+ "precision mediump float;"
+			+ "uniform sampler2D u_Texture;"
+			+ "uniform vec4 u_Color;"
+			+ "varying vec2 v_TexCoord;"
+			+ "void main() {"
+			+ "  gl_FragColor = texture2D(u_Texture, v_TexCoord) * u_Color;"
+			+ "}";
+
+	/**
+	 * the vertex shader of the colored shapes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String COLOR_VERTEX_SHADER = ""
+			+ "uniform mat4 u_Matrix;"
+			+ "attribute vec4 a_Position;"
+			+ "attribute vec4 a_Color;"
+			+ "varying vec4 v_Color;"
+			+ "void main() {"
+			+ "  v_Color = a_Color;"
+			+ "  gl_Position = u_Matrix * a_Position;"
+			+ "}";
+
+	/**
+	 * the fragment shader of the colored shapes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String COLOR_FRAGMENT_SHADER = ""
+			+ "precision mediump float;"
+			+ "varying vec4 v_Color;"
+			+ "void main() {"
+			+ "  gl_FragColor = v_Color;"
+			+ "}";
+
+	/**
+	 * the location of the position attribute, in both the programs.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int POSITION = 0;
+
+	/**
+	 * the location of the texture coordinates or color attribute.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int ATTRIBUTE = 1;
+
+	/** the color of the board background and of the messages. */
+	private static final float[] BOARD_COLOR = new float[] { 1.0f, 1.0f, 0.0f,
+			1.0f };
+
+	/** the color of the ball, which shows the texture as it is. */
+	private static final float[] BALL_COLOR = new float[] { 1.0f, 1.0f, 1.0f,
+			1.0f };
+
+	/**
+	 * The buffer objects of a batch of shapes.
+	 */
+	private static class BatchBuffers {
+		// the vertex, index and color buffer objects, 0 if not uploaded
+		private int[] names = new int[3];
+		private float[] color;
+	}
+
+	private int textureProgram;
+	private int textureMatrix;
+	private int textureColor;
+
+	private int colorProgram;
+	private int colorMatrix;
+
+	private int currentProgram = 0;
+	// the program switches of the current frame and of the last one
+	private int programSwitches = 0;
+	private int lastProgramSwitches = 0;
+
+	// the texture of every Tex entry, the same one if they're packed
+	private int[] textures = new int[Tex.values().length];
+	// the quads of every Tex entry, four vertices (x, y, s, t) each
+	private int[] quads = new int[1];
+
+	private float[] projection = new float[16];
+	private float[] matrix = new float[16];
+
+	private Maze maze = null;
+	private BatchBuffers walls = new BatchBuffers();
+	private BatchBuffers holes = new BatchBuffers();
+
+	@Override
+	public int getGlEsVersion() {
+		return 2;
+	}
+
+	@Override
+	public void onSurfaceCreated(GL10 gl, Context context) {
+		// the buffers of the previous context are lost
+		walls = new BatchBuffers();
+		holes = new BatchBuffers();
+		currentProgram = 0;
+
+		// background clear color
+		GLES20.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+
+		// enables the blending
+		GLES20.glEnable(GLES20.GL_BLEND);
+		// sets the blending function
+		GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA,
+				GLES20.GL_ONE_MINUS_SRC_ALPHA);
+
+		textureProgram = createProgram(TEXTURE_VERTEX_SHADER,
+				TEXTURE_FRAGMENT_SHADER, "a_TexCoord");
+		textureMatrix = GLES20.glGetUniformLocation(textureProgram,
+				"u_Matrix");
+		textureColor = GLES20.glGetUniformLocation(textureProgram, "u_Color");
+
+		colorProgram = createProgram(COLOR_VERTEX_SHADER,
+				COLOR_FRAGMENT_SHADER, "a_Color");
+		colorMatrix = GLES20.glGetUniformLocation(colorProgram, "u_Matrix");
+
+		loadTextures(context);
+	}
+
+	/**
+	 * Loads the textures, packed in an atlas if possible, and the quads
+	 * mapping them on the board.
+	 */
+	private void loadTextures(Context context) {
+		long begin = System.nanoTime();
+
+		Bitmap[] bitmaps = TextureManager.getBitmaps(context);
+		int[] widths = new int[bitmaps.length];
+		int[] heights = new int[bitmaps.length];
+		for (int i = 0; i < bitmaps.length; i++) {
+			widths[i] = bitmaps[i].getWidth();
+			heights[i] = bitmaps[i].getHeight();
+		}
+
+		int[] maxSize = new int[1];
+		GLES20.glGetIntegerv(GLES20.GL_MAX_TEXTURE_SIZE, maxSize, 0);
+
+		TextureAtlas atlas = null;
+		try {
+			atlas = new TextureAtlas(widths, heights, maxSize[0]);
+		} catch (IllegalArgumentException e) {
+			// the textures are loaded one by one
+		}
+
+		// the same quad for all the textures, with their own coordinates
+		float[] quad = new float[] { -1.0f, -1.0f, -1.0f, 1.0f, 1.0f, -1.0f,
+				1.0f, 1.0f };
+		float[] vertices = new float[bitmaps.length * 16];
+
+		if (atlas != null) {
+			int texture = createTexture();
+			GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA,
+					atlas.getWidth(), atlas.getHeight(), 0, GLES20.GL_RGBA,
+					GLES20.GL_UNSIGNED_BYTE, null);
+
+			for (int i = 0; i < bitmaps.length; i++) {
+				GLUtils.texSubImage2D(GLES20.GL_TEXTURE_2D, 0, atlas.getX(i),
+						atlas.getY(i), bitmaps[i]);
+				textures[i] = texture;
+				putQuad(vertices, i, quad, atlas.getTextureCoordinates(i));
+			}
+		} else {
+			for (int i = 0; i < bitmaps.length; i++) {
+				textures[i] = createTexture();
+				GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmaps[i], 0);
+				putQuad(vertices, i, quad, new float[] { 0.0f, 0.0f, 0.0f,
+						1.0f, 1.0f, 0.0f, 1.0f, 1.0f });
+			}
+		}
+
+		// uploads the quads
+		FloatBuffer buffer = ByteBuffer.allocateDirect(vertices.length * 4)
+				.order(ByteOrder.nativeOrder()).asFloatBuffer();
+		buffer.put(vertices);
+		buffer.position(0);
+
+		GLES20.glGenBuffers(1, quads, 0);
+		GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, quads[0]);
+		GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, vertices.length * 4,
+				buffer, GLES20.GL_STATIC_DRAW);
+
+		Log.d(TAG, "textures loaded in " + (System.nanoTime() - begin)
+				/ 1000000 + " ms");
+	}
+
+	/** Interleaves the vertices of a quad with their texture coordinates. */
+	private static void putQuad(float[] vertices, int index, float[] quad,
+			float[] coordinates) {
+		for (int v = 0; v < 4; v++) {
+			vertices[index * 16 + v * 4] = quad[v * 2];
+			vertices[index * 16 + v * 4 + 1] = quad[v * 2 + 1];
+			vertices[index * 16 + v * 4 + 2] = coordinates[v * 2];
+			vertices[index * 16 + v * 4 + 3] = coordinates[v * 2 + 1];
+		}
+	}
+
+	/** Generates and binds a texture, with the parameters of the game. */
+	private static int createTexture() {
+		int[] texture = new int[1];
+		GLES20.glGenTextures(1, texture, 0);
+		GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texture[0]);
+
+		GLES20.glTexParameterf(GLES20.GL_TEXTURE_2D,
+				GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_NEAREST);
+		GLES20.glTexParameterf(GLES20.GL_TEXTURE_2D,
+				GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+		GLES20.glTexParameterf(GLES20.GL_TEXTURE_2D,
+				GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+		GLES20.glTexParameterf(GLES20.GL_TEXTURE_2D,
+				GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+
+		return texture[0];
+	}
+
+	/**
+	 * Compiles and links a program.
+	 * 
+	 * @throws IllegalStateException
+	 *             if a shader doesn't compile or the program doesn't link.
+	 */
+	private static int createProgram(String vertexShader,
+			String fragmentShader, String attribute) {
+		int vertex = compileShader(GLES20.GL_VERTEX_SHADER, vertexShader);
+		int fragment = compileShader(GLES20.GL_FRAGMENT_SHADER,
+				fragmentShader);
+
+		int program = GLES20.glCreateProgram();
+		GLES20.glAttachShader(program, vertex);
+		GLES20.glAttachShader(program, fragment);
+		// both the programs use the same attribute locations
+		GLES20.glBindAttribLocation(program, POSITION, "a_Position");
+		GLES20.glBindAttribLocation(program, ATTRIBUTE, attribute);
+		GLES20.glLinkProgram(program);
+
+		// the shaders are deleted with the program
+		GLES20.glDeleteShader(vertex);
+		GLES20.glDeleteShader(fragment);
+
+		int[] status = new int[1];
+		GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0);
+		if (status[0] == 0) {
+			String log = GLES20.glGetProgramInfoLog(program);
+			GLES20.glDeleteProgram(program);
+			throw new IllegalStateException("Maze program not linked: " + log);
+		}
+
+		return program;
+	}
+
+	/**
+	 * Compiles a shader.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the shader doesn't compile.
+	 */
+	private static int compileShader(int type, String source) {
+		int shader = GLES20.glCreateShader(type);
+		GLES20.glShaderSource(shader, source);
+		GLES20.glCompileShader(shader);
+
+		int[] status = new int[1];
+		GLES20.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, status, 0);
+		if (status[0] == 0) {
+			String log = GLES20.glGetShaderInfoLog(shader);
+			GLES20.glDeleteShader(shader);
+			throw new IllegalStateException("Maze shader not compiled: " + log);
+		}
+
+		return shader;
+	}
+
+	@Override
+	public void onSurfaceChanged(GL10 gl, int width, int height) {
+		// sets the viewport
+		GLES20.glViewport(0, 0, width, height);
+
+		// a 2D orthographic projection reducing the (-1, 1) area of 2 *
+		// BORDER (thus leaving a border around the board), with the y axis
+		// pointing down
+		float[] ortho = new float[16];
+		Matrix.orthoM(ortho, 0, -1.0f - BORDER, 1.0f + BORDER, 1.0f + BORDER,
+				-1.0f - BORDER, -1.0f, 1.0f);
+
+		// scales the width to get equal proportions on x and y
+		float[] scale = new float[16];
+		Matrix.setIdentityM(scale, 0);
+		Matrix.scaleM(scale, 0, (float) height / (float) width, 1.0f, 1.0f);
+
+		Matrix.multiplyMM(projection, 0, scale, 0, ortho, 0);
+	}
+
+	@Override
+	public void setMaze(GL10 gl, Maze previous, Maze maze) {
+		this.maze = maze;
+
+		// frees the buffers of the previous maze
+		if (previous != maze) {
+			release(walls);
+			release(holes);
+		}
+	}
+
+	/** Deletes the buffer objects of a batch, if any. */
+	private static void release(BatchBuffers buffers) {
+		if (buffers.names[0] != 0)
+			GLES20.glDeleteBuffers(buffers.names[2] != 0 ? 3 : 2,
+					buffers.names, 0);
+
+		buffers.names[0] = 0;
+		buffers.names[1] = 0;
+		buffers.names[2] = 0;
+	}
+
+	@Override
+	public void clear(GL10 gl) {
+		// clears to the background color
+		GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+	}
+
+	@Override
+	public void drawBoard(GL10 gl, Tex tex) {
+		drawQuad(tex, projection, BOARD_COLOR);
+	}
+
+	@Override
+	public void drawMaze(GL10 gl) {
+		drawQuad(Tex.BOARD, projection, BOARD_COLOR);
+
+		useProgram(colorProgram);
+		GLES20.glUniformMatrix4fv(colorMatrix, 1, false, projection, 0);
+
+		// draws all the walls at once, then all the holes
+		drawBatch(maze.getWallBatch(), walls);
+		drawBatch(maze.getHoleBatch(), holes);
+	}
+
+	@Override
+	public void drawBall(GL10 gl, float x, float y) {
+		// moves the unit quad to the ball, and scales it to its radius
+		float radius = maze.getBallRadius();
+		Matrix.translateM(matrix, 0, projection, 0, x, y, 0.0f);
+		Matrix.scaleM(matrix, 0, radius, radius, 1.0f);
+
+		drawQuad(Tex.BALL, matrix, BALL_COLOR);
+	}
+
+	/** Draws the quad of a texture. */
+	private void drawQuad(Tex tex, float[] matrix, float[] color) {
+		useProgram(textureProgram);
+		GLES20.glUniformMatrix4fv(textureMatrix, 1, false, matrix, 0);
+		GLES20.glUniform4f(textureColor, color[0], color[1], color[2],
+				color[3]);
+		GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textures[tex.index]);
+
+		// the vertices are interleaved with their texture coordinates
+		GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, quads[0]);
+		GLES20.glEnableVertexAttribArray(POSITION);
+		GLES20.glVertexAttribPointer(POSITION, 2, GLES20.GL_FLOAT, false, 16,
+				0);
+		GLES20.glEnableVertexAttribArray(ATTRIBUTE);
+		GLES20.glVertexAttribPointer(ATTRIBUTE, 2, GLES20.GL_FLOAT, false,
+				16, 8);
+
+		GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, tex.index * 4, 4);
+		DrawCalls.add();
+	}
+
+	/** Draws a batch of shapes, uploading it on the first draw. */
+	private void drawBatch(Batch batch, BatchBuffers buffers) {
+		int shapesCount = batch.getShapesCount();
+		if (shapesCount == 0)
+			return;
+
+		if (buffers.names[0] == 0)
+			upload(batch, buffers);
+
+		int shapeVertices = batch.getShapeVertices();
+		int chunkShapes = batch.getChunkShapes();
+		boolean colors = buffers.names[2] != 0;
+
+		GLES20.glEnableVertexAttribArray(POSITION);
+		// the shapes have their own colors, or all the same one
+		if (colors)
+			GLES20.glEnableVertexAttribArray(ATTRIBUTE);
+		else {
+			GLES20.glDisableVertexAttribArray(ATTRIBUTE);
+			GLES20.glVertexAttrib4f(ATTRIBUTE, buffers.color[0],
+					buffers.color[1], buffers.color[2], buffers.color[3]);
+		}
+
+		GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, buffers.names[1]);
+		for (int first = 0; first < shapesCount; first += chunkShapes) {
+			int shapes = Math.min(chunkShapes, shapesCount - first);
+
+			// points to the first vertex of the chunk
+			GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers.names[0]);
+			GLES20.glVertexAttribPointer(POSITION, 2, GLES20.GL_FLOAT, false,
+					0, first * shapeVertices * 2 * 4);
+			if (colors) {
+				GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers.names[2]);
+				GLES20.glVertexAttribPointer(ATTRIBUTE, 4,
+						GLES20.GL_UNSIGNED_BYTE, true, 0, first
+								* shapeVertices * 4);
+			}
+
+			GLES20.glDrawElements(GLES20.GL_TRIANGLES, shapes
+					* batch.getShapeIndices(), GLES20.GL_UNSIGNED_SHORT, 0);
+			DrawCalls.add();
+		}
+	}
+
+	/** Copies the vertices, the indices and the colors to buffer objects. */
+	private static void upload(Batch batch, BatchBuffers buffers) {
+		FloatBuffer vertices = batch.getVertexBuffer();
+		ByteBuffer colors = batch.getColorBuffer();
+
+		GLES20.glGenBuffers(colors != null ? 3 : 2, buffers.names, 0);
+
+		GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers.names[0]);
+		GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, vertices.capacity() * 4,
+				vertices, GLES20.GL_STATIC_DRAW);
+
+		GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, buffers.names[1]);
+		GLES20.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, batch
+				.getIndexBuffer().capacity() * 2, batch.getIndexBuffer(),
+				GLES20.GL_STATIC_DRAW);
+
+		if (colors != null) {
+			GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers.names[2]);
+			GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, colors.capacity(),
+					colors, GLES20.GL_STATIC_DRAW);
+		}
+
+		buffers.color = batch.getColor();
+	}
+
+	/** Switches to a program, if it's not the current one. */
+	private void useProgram(int program) {
+		if (program != currentProgram) {
+			GLES20.glUseProgram(program);
+			currentProgram = program;
+			programSwitches++;
+		}
+	}
+
+	@Override
+	public void endFrame() {
+		lastProgramSwitches = programSwitches;
+		programSwitches = 0;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "program switches: " + lastProgramSwitches;
+	}
+}
\ No newline at end of file
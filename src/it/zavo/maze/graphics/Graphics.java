@@ -23,23 +23,18 @@
 package it.zavo.maze.graphics;
 
 import it.zavo.maze.MazeActivity;
-import it.zavo.maze.R;
-import it.zavo.maze.graphics.shape.Rectangle;
 import it.zavo.maze.maze.Maze;
+import it.zavo.maze.maze.MazeCache;
+import it.zavo.maze.maze.MazePreloader;
 import it.zavo.maze.physics.Physics;
 import it.zavo.maze.util.Status;
 import it.zavo.maze.util.Tex;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Random;
-
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
 import android.content.Context;
 import android.opengl.GLSurfaceView.Renderer;
-import android.opengl.GLU;
 import android.os.Vibrator;
 
 /**
@@ -48,75 +43,110 @@ import android.os.Vibrator;
  * @author Marco Mandrioli
  */
 public class Graphics implements Renderer {
-	/**
-	 * the border to be left around the board. The size is relative to the width
-	 * of the screen, and the height border should be scaled to match the screen
-	 * ratio.
-	 * <p>
-	 * Constant value: {@value}
-	 */
-	private static final float BORDER = 0.015f;
-
-	private Random random;
-	private ArrayList<Integer> resourcesList;
 	private Context context;
 	private Vibrator vibrator;
 
 	private Maze maze = null;
-	private Rectangle board;
+	private MazeCache cache = new MazeCache(MazeCache.DEFAULT_MAX_SIZE);
+	private MazePreloader preloader;
+	private MazeRenderer renderer;
+	private FrameScheduler scheduler = null;
+	private FrameMetrics metrics = new FrameMetrics(
+			FrameMetrics.DEFAULT_CAPACITY);
 
 	/**
-	 * Constructs a new renderer within the specified context.
+	 * Constructs a new renderer within the specified context, drawing with
+	 * OpenGL ES 1.x.
 	 * 
-	 * @param gl
-	 *            the GL object.
 	 * @param context
 	 *            the context in which the vibrator service is.
 	 */
 	public Graphics(Context context) {
+		this(context, new Gl10Renderer());
+	}
+
+	/**
+	 * Constructs a new renderer within the specified context, drawing through
+	 * the given backend.
+	 * 
+	 * @param context
+	 *            the context in which the vibrator service is.
+	 * @param renderer
+	 *            the backend, whose OpenGL ES version the GL surface must be
+	 *            created with.
+	 */
+	public Graphics(Context context, MazeRenderer renderer) {
 		this.context = context;
+		this.renderer = renderer;
 
 		// gets the vibrator reference
 		vibrator = (Vibrator) context
 				.getSystemService(Context.VIBRATOR_SERVICE);
 
-		// gets a list of files in the /res/raw/ folder
-		resourcesList = new ArrayList<Integer>();
-		Field[] fields = R.raw.class.getFields();
-		for (Field f : fields) {
-			try {
-				resourcesList.add(f.getInt(null));
-			} catch (IllegalArgumentException e) {
-				e.printStackTrace();
-			} catch (IllegalAccessException e) {
-				e.printStackTrace();
-			}
-		}
+		// starts building the first maze in background, chosen from the
+		// generated index of the levels
+		preloader = new MazePreloader(context, cache);
+		preloader.preload();
+	}
+
+	/**
+	 * Sets the scheduler that paces the frames and stops the rendering while
+	 * a message is shown.
+	 * 
+	 * @param scheduler
+	 *            the scheduler, or <code>null</code> to draw every frame.
+	 */
+	public void setFrameScheduler(FrameScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
 
-		// creates a new random number generator
-		random = new Random();
-		
-		// creates a new rectangle for the background of the board and the messages
-		board = new Rectangle(-1.0f, 1.0f, -1.0f, 1.0f, 1.0f, 1.0f, 0.0f, 1.0f);
+	/**
+	 * Returns the metrics of the last frames drawn. They can be read from any
+	 * thread.
+	 * 
+	 * @return the registry of the frame metrics.
+	 */
+	public FrameMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Stops building mazes in background. The renderer can't start a new
+	 * level anymore.
+	 */
+	public void shutdown() {
+		preloader.shutdown();
 	}
 
 	/** Called to draw the current frame. */
 	@Override
 	public void onDrawFrame(GL10 gl) {
-		// clears to the background color
-		gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+		// waits for the time of the frame
+		if (scheduler != null)
+			scheduler.beginFrame();
+		boolean message = false;
+		metrics.beginFrame();
+		long time;
 
-		// draws the board background
-		board.draw(gl, Tex.BOARD);
+		// clears to the background color
+		renderer.clear(gl);
 
 		// gets the status of the game
 		Status status = MazeActivity.getStatus();
 		if (status == Status.GAME_OK) {
 			// gets the updated position of the ball
+			time = System.nanoTime();
+			long tested = maze.getWallsTested();
 			float[] position = Physics.update(gl, maze);
+			metrics.add(FrameMetrics.PHYSICS, System.nanoTime() - time);
+			metrics.add(FrameMetrics.WALLS, maze.getWallsTested() - tested);
 
-			// draws the maze
-			maze.draw(gl, position[0], position[1]);
+			// draws the board background, the walls and the holes, then the
+			// ball
+			time = System.nanoTime();
+			renderer.drawMaze(gl);
+			renderer.drawBall(gl, position[0], position[1]);
+			metrics.add(FrameMetrics.MAZE, System.nanoTime() - time);
 
 			// gets the status of the game
 			status = MazeActivity.getStatus();
@@ -132,11 +162,22 @@ public class Graphics implements Renderer {
 				vibrator.vibrate(1000);
 			}
 		} else {
+			// draws the board background
+			time = System.nanoTime();
+			renderer.drawBoard(gl, Tex.BOARD);
+			metrics.add(FrameMetrics.OVERLAY, System.nanoTime() - time);
+
 			if (status == Status.INITIALIZE_NEW_LEVEL) {
-				// creates new maze, chosen randomly from the available maze
-				// files
-				maze = new Maze(gl, context, resourcesList.get(random
-						.nextInt(resourcesList.size())));
+				// takes the maze built in background, chosen randomly from
+				// the available maze files, and starts building the next one
+				Maze previous = maze;
+				maze = preloader.take();
+
+				// frees the OpenGL resources of the previous maze
+				renderer.setMaze(gl, previous, maze);
+
+				// initializes physics engine
+				Physics.init(maze);
 				
 				// cancels vibration (if still running)
 				vibrator.cancel();
@@ -152,54 +193,48 @@ public class Graphics implements Renderer {
 
 			} else if (status == Status.LEVEL_COMPLETE) {
 				// prints the 'Level Complete' message
-				board.draw(gl, Tex.LEVEL_COMPLETE);
+				time = System.nanoTime();
+				renderer.drawBoard(gl, Tex.LEVEL_COMPLETE);
+				metrics.add(FrameMetrics.OVERLAY, System.nanoTime() - time);
+				message = true;
 
 			} else if (status == Status.LEVEL_LOST) {
 				// prints the 'Level Lost' message
-				board.draw(gl, Tex.LEVEL_LOST);
+				time = System.nanoTime();
+				renderer.drawBoard(gl, Tex.LEVEL_LOST);
+				metrics.add(FrameMetrics.OVERLAY, System.nanoTime() - time);
+				message = true;
 			}
 		}
+
+		// counts the draw and state calls of the frame, and records the
+		// metrics of the frame
+		DrawCalls.endFrame();
+		renderer.endFrame();
+		metrics.add(FrameMetrics.DRAW_CALLS, DrawCalls.getLastFrame());
+		metrics.endFrame();
+
+		// a message doesn't change until the screen is touched, so the frame
+		// is drawn once; the status is checked again since the touch could
+		// have happened while the frame was drawn
+		if (scheduler != null && message) {
+			scheduler.idle();
+			if (MazeActivity.getStatus() != status)
+				scheduler.wake();
+		}
 	}
 
 	/** Called when the surface changed size. */
 	@Override
 	public void onSurfaceChanged(GL10 gl, int width, int height) {
-		// sets the viewport
-		gl.glViewport(0, 0, width, height);
-		// switches to the projection matrix stack
-		gl.glMatrixMode(GL10.GL_PROJECTION);
-		// loads identity matrix
-		gl.glLoadIdentity();
-
-		// scales the width to get equal proportions on x and y (thus making the
-		// x = (-1, 1), y = (1, -1) region squared)
-		gl.glScalef((float) height / (float) width, 1, 1);
-
-		// sets up a 2D orthographic projection reducing the (-1, 1) area of 2 *
-		// BORDER (thus leaving a border around the board)
-		GLU.gluOrtho2D(gl, -1.0f - BORDER, 1.0f + BORDER, 1.0f + BORDER, -1.0f
-				- BORDER);
-
-		// switches back to the modelview matrix stack
-		gl.glMatrixMode(GL10.GL_MODELVIEW);
-		// loads identity matrix
-		gl.glLoadIdentity();
+		renderer.onSurfaceChanged(gl, width, height);
 	}
 
 	/** Called when the surface is created or recreated. */
 	@Override
 	public void onSurfaceCreated(GL10 gl, EGLConfig config) {
-		// background clear color
-		gl.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
-
-		// enables the blending
-		gl.glEnable(GL10.GL_BLEND);
-		// sets the blending function
-		gl.glBlendFunc(GL10.GL_SRC_ALPHA, GL10.GL_ONE_MINUS_SRC_ALPHA);
-		// enables 2D textures
-		gl.glEnable(GL10.GL_TEXTURE_2D);
-
-		// loads the textures (every time the EGL context is lost, the OpenGL resources are freed.
-		TextureManager.loadTextures(gl, context);
+		// creates the OpenGL resources (every time the EGL context is lost,
+		// they're freed)
+		renderer.onSurfaceCreated(gl, context);
 	}
 }
\ No newline at end of file
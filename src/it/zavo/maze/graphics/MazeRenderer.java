@@ -0,0 +1,148 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.util.Tex;
+
+import javax.microedition.khronos.opengles.GL10;
+
+import android.content.Context;
+
+/**
+ * The backend the {@link Graphics} draws the game through, on top of an
+ * OpenGL ES version. All the methods are called by the rendering thread.
+ * <p>
+ * The board covers the (-1, 1) region, with the y axis pointing down, and is
+ * centered on the screen with a border around it.
+ * 
+ * @author Maze-Android contributors
+ * 
+ * @see Gl10Renderer
+ * @see Gles20Renderer
+ */
+public interface MazeRenderer {
+	/**
+	 * the border to be left around the board. The size is relative to the width
+	 * of the screen, and the height border should be scaled to match the screen
+	 * ratio.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	float BORDER = 0.015f;
+
+	/**
+	 * Returns the OpenGL ES version the GL surface must be created with.
+	 * 
+	 * @return the major version, 1 or 2.
+	 */
+	int getGlEsVersion();
+
+	/**
+	 * Creates the OpenGL resources, when the surface is created or recreated.
+	 * The resources of the previous context, if any, have been lost.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param context
+	 *            the context in which the drawable resources are.
+	 */
+	void onSurfaceCreated(GL10 gl, Context context);
+
+	/**
+	 * Sets the viewport and the projection, when the surface changed size.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param width
+	 *            the width of the surface, in pixels.
+	 * @param height
+	 *            the height of the surface, in pixels.
+	 */
+	void onSurfaceChanged(GL10 gl, int width, int height);
+
+	/**
+	 * Switches to a new maze, freeing the OpenGL resources of the previous
+	 * one.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param previous
+	 *            the previous maze, or <code>null</code>.
+	 * @param maze
+	 *            the new maze. It can be the same of the previous one.
+	 */
+	void setMaze(GL10 gl, Maze previous, Maze maze);
+
+	/**
+	 * Clears the frame.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	void clear(GL10 gl);
+
+	/**
+	 * Draws a texture over the whole board, e.g. the background or a message.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param tex
+	 *            the texture to be drawn.
+	 */
+	void drawBoard(GL10 gl, Tex tex);
+
+	/**
+	 * Draws the board background with the walls and the holes of the current
+	 * maze.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	void drawMaze(GL10 gl);
+
+	/**
+	 * Draws the ball of the current maze.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param x
+	 *            the x coordinate of the center of the ball.
+	 * @param y
+	 *            the y coordinate of the center of the ball.
+	 */
+	void drawBall(GL10 gl, float x, float y);
+
+	/**
+	 * Ends the current frame.
+	 */
+	void endFrame();
+
+	/**
+	 * Returns a short report of the calls of the last completed frame, for the
+	 * logs.
+	 * 
+	 * @return a single-line, human readable report.
+	 */
+	String getStatistics();
+}
\ No newline at end of file
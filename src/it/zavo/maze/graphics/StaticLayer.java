@@ -0,0 +1,355 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import it.zavo.maze.graphics.shape.Rectangle;
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.util.Tex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11ExtensionPack;
+
+import android.opengl.GLU;
+
+/**
+ * The part of the frame that doesn't change during a level: the board, the
+ * walls and the holes. It's rendered once per level, or after the surface
+ * changed, into a texture, which is then drawn every frame as a single quad
+ * however many walls and holes the maze has.
+ * <p>
+ * The texture is rendered through a framebuffer object where the
+ * <code>GL_OES_framebuffer_object</code> extension is available. Otherwise
+ * the layer is drawn on the screen, and the board region is copied into the
+ * texture. If the board doesn't fit in a texture, or the cache is disabled,
+ * the layer is drawn directly every frame.
+ * 
+ * @author Maze-Android contributors
+ */
+public class StaticLayer {
+	/**
+	 * the name of the framebuffer object extension.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String FBO_EXTENSION = "GL_OES_framebuffer_object";
+
+	private Rectangle board;
+	private boolean caching = true;
+
+	private int[] texture = new int[1];
+	private int[] framebuffer = new int[1];
+	private Boolean fboSupported = null;
+	private boolean valid = false;
+
+	// the size of the surface and of the board on it, in pixels
+	private int width = 0;
+	private int height = 0;
+	private int size = 0;
+	// the size of the texture: the lowest power of two holding the board
+	private int textureSize = 0;
+
+	private FloatBuffer vertexBuffer;
+	private FloatBuffer textureBuffer;
+
+	/**
+	 * Constructs the static layer.
+	 * 
+	 * @param board
+	 *            the background of the board, drawn under the walls and the
+	 *            holes.
+	 */
+	public StaticLayer(Rectangle board) {
+		this.board = board;
+
+		// the quad covers the board, as a triangle strip
+		float[] vertices = new float[] { -1.0f, -1.0f, -1.0f, 1.0f, 1.0f,
+				-1.0f, 1.0f, 1.0f };
+
+		ByteBuffer byteBuffer = ByteBuffer.allocateDirect(vertices.length * 4);
+		byteBuffer.order(ByteOrder.nativeOrder());
+		vertexBuffer = byteBuffer.asFloatBuffer();
+		vertexBuffer.put(vertices);
+		vertexBuffer.position(0);
+
+		byteBuffer = ByteBuffer.allocateDirect(vertices.length * 4);
+		byteBuffer.order(ByteOrder.nativeOrder());
+		textureBuffer = byteBuffer.asFloatBuffer();
+	}
+
+	/**
+	 * Sets the size of the surface and of the board on it. This should be
+	 * called by the {@link Graphics#onSurfaceChanged(GL10, int, int)
+	 * onSurfaceChanged(...)}.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param width
+	 *            the width of the surface, in pixels.
+	 * @param height
+	 *            the height of the surface, in pixels.
+	 * @param size
+	 *            the side of the board on the surface, in pixels.
+	 */
+	public void setSize(GL10 gl, int width, int height, int size) {
+		this.width = width;
+		this.height = height;
+
+		if (size != this.size) {
+			// the texture is created again, with the new size
+			release(gl);
+			this.size = size;
+
+			textureSize = 1;
+			while (textureSize < size)
+				textureSize *= 2;
+
+			// the board fills the bottom left corner of the texture; the top
+			// of the board (y = -1) is at the top of the texture (t = max)
+			float max = (float) size / textureSize;
+			textureBuffer.put(new float[] { 0.0f, max, 0.0f, 0.0f, max, max,
+					max, 0.0f });
+			textureBuffer.position(0);
+		}
+
+		valid = false;
+	}
+
+	/**
+	 * Draws the board, the walls and the holes of the maze, rendering them
+	 * into the texture first if it's not up to date.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param maze
+	 *            the current maze.
+	 */
+	public void draw(GL10 gl, Maze maze) {
+		if (caching && !valid && size > 0)
+			render(gl, maze);
+
+		if (!valid) {
+			drawLayer(gl, maze);
+			return;
+		}
+
+		GlState.clientStates(gl, true, true, false);
+		GlState.vertexPointer(gl, vertexBuffer);
+		GlState.texCoordPointer(gl, textureBuffer);
+		GlState.bindTexture(gl, texture[0]);
+		// the texture replaces the background, with its own colors
+		GlState.color(gl, 1.0f, 1.0f, 1.0f, 1.0f);
+
+		gl.glDisable(GL10.GL_BLEND);
+		gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, 4);
+		DrawCalls.add();
+		gl.glEnable(GL10.GL_BLEND);
+	}
+
+	/** Draws the board, the walls and the holes of the maze. */
+	private void drawLayer(GL10 gl, Maze maze) {
+		board.draw(gl, Tex.BOARD);
+		maze.drawStatic(gl);
+	}
+
+	/** Renders the layer into the texture, creating it if needed. */
+	private void render(GL10 gl, Maze maze) {
+		if (texture[0] == 0 && !createTexture(gl))
+			return;
+
+		if (isFboSupported(gl) && bindFramebuffer((GL11ExtensionPack) gl)) {
+			// renders the board (-1, 1) area on the whole viewport, with the
+			// same orientation of the screen
+			gl.glViewport(0, 0, size, size);
+			gl.glMatrixMode(GL10.GL_PROJECTION);
+			gl.glPushMatrix();
+			gl.glLoadIdentity();
+			GLU.gluOrtho2D(gl, -1.0f, 1.0f, 1.0f, -1.0f);
+			gl.glMatrixMode(GL10.GL_MODELVIEW);
+
+			gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
+			drawLayer(gl, maze);
+
+			gl.glMatrixMode(GL10.GL_PROJECTION);
+			gl.glPopMatrix();
+			gl.glMatrixMode(GL10.GL_MODELVIEW);
+
+			((GL11ExtensionPack) gl).glBindFramebufferOES(
+					GL11ExtensionPack.GL_FRAMEBUFFER_OES, 0);
+			gl.glViewport(0, 0, width, height);
+		} else {
+			// the board must be entirely on the screen to be copied,
+			// otherwise it's drawn every frame
+			if (size > width || size > height) {
+				caching = false;
+				return;
+			}
+
+			// the board is at the center of the screen
+			drawLayer(gl, maze);
+			GlState.bindTexture(gl, texture[0]);
+			gl.glCopyTexSubImage2D(GL10.GL_TEXTURE_2D, 0, 0, 0,
+					(width - size) / 2, (height - size) / 2, size, size);
+		}
+
+		valid = true;
+	}
+
+	/**
+	 * Creates the texture holding the layer. If the board is too big for a
+	 * texture, the layer is not cached.
+	 */
+	private boolean createTexture(GL10 gl) {
+		int[] maxSize = new int[1];
+		gl.glGetIntegerv(GL10.GL_MAX_TEXTURE_SIZE, maxSize, 0);
+		if (textureSize > maxSize[0]) {
+			// the layer is drawn every frame
+			caching = false;
+			return false;
+		}
+
+		gl.glGenTextures(1, texture, 0);
+		GlState.bindTexture(gl, texture[0]);
+
+		// the texture is drawn one texel per pixel
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_MIN_FILTER,
+				GL10.GL_NEAREST);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_MAG_FILTER,
+				GL10.GL_NEAREST);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_WRAP_S,
+				GL10.GL_CLAMP_TO_EDGE);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_WRAP_T,
+				GL10.GL_CLAMP_TO_EDGE);
+
+		// allocates the texture, without data
+		gl.glTexImage2D(GL10.GL_TEXTURE_2D, 0, GL10.GL_RGBA, textureSize,
+				textureSize, 0, GL10.GL_RGBA, GL10.GL_UNSIGNED_BYTE, null);
+
+		return true;
+	}
+
+	/**
+	 * Binds the framebuffer object rendering into the texture, creating it if
+	 * needed. If it's not complete, the framebuffer objects are not used.
+	 */
+	private boolean bindFramebuffer(GL11ExtensionPack gl) {
+		if (framebuffer[0] != 0) {
+			gl.glBindFramebufferOES(GL11ExtensionPack.GL_FRAMEBUFFER_OES,
+					framebuffer[0]);
+			return true;
+		}
+
+		gl.glGenFramebuffersOES(1, framebuffer, 0);
+		gl.glBindFramebufferOES(GL11ExtensionPack.GL_FRAMEBUFFER_OES,
+				framebuffer[0]);
+		gl.glFramebufferTexture2DOES(GL11ExtensionPack.GL_FRAMEBUFFER_OES,
+				GL11ExtensionPack.GL_COLOR_ATTACHMENT0_OES,
+				GL10.GL_TEXTURE_2D, texture[0], 0);
+
+		int status = gl
+				.glCheckFramebufferStatusOES(GL11ExtensionPack.GL_FRAMEBUFFER_OES);
+		if (status != GL11ExtensionPack.GL_FRAMEBUFFER_COMPLETE_OES) {
+			gl.glBindFramebufferOES(GL11ExtensionPack.GL_FRAMEBUFFER_OES, 0);
+			gl.glDeleteFramebuffersOES(1, framebuffer, 0);
+			framebuffer[0] = 0;
+			fboSupported = false;
+			return false;
+		}
+
+		return true;
+	}
+
+	/** Tells if the framebuffer object extension is available. */
+	private boolean isFboSupported(GL10 gl) {
+		if (fboSupported == null) {
+			String extensions = gl.glGetString(GL10.GL_EXTENSIONS);
+			fboSupported = gl instanceof GL11ExtensionPack
+					&& extensions != null
+					&& extensions.contains(FBO_EXTENSION);
+		}
+
+		return fboSupported;
+	}
+
+	/**
+	 * Renders the layer again on the next draw, e.g. because the level
+	 * changed.
+	 */
+	public void redraw() {
+		valid = false;
+	}
+
+	/**
+	 * Deletes the texture and the framebuffer object. They are created again
+	 * on the next draw.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	public void release(GL10 gl) {
+		if (framebuffer[0] != 0)
+			((GL11ExtensionPack) gl).glDeleteFramebuffersOES(1, framebuffer,
+					0);
+		if (texture[0] != 0) {
+			gl.glDeleteTextures(1, texture, 0);
+			GlState.deletedTexture(texture[0]);
+		}
+
+		invalidate();
+	}
+
+	/**
+	 * Forgets the texture and the framebuffer object after the loss of the
+	 * OpenGL context, so that they're created again on the next draw.
+	 */
+	public void invalidate() {
+		texture[0] = 0;
+		framebuffer[0] = 0;
+		fboSupported = null;
+		valid = false;
+	}
+
+	/**
+	 * Tells if the layer is cached in a texture, when possible.
+	 * 
+	 * @return <code>true</code> if the layer is cached, <code>false</code> if
+	 *         it's drawn every frame.
+	 */
+	public boolean isCaching() {
+		return caching;
+	}
+
+	/**
+	 * Sets whether the layer is cached in a texture, when possible, or drawn
+	 * every frame as a reference. The default is to cache it.
+	 * 
+	 * @param caching
+	 *            <code>true</code> to cache the layer.
+	 */
+	public void setCaching(boolean caching) {
+		this.caching = caching;
+	}
+}
\ No newline at end of file
@@ -66,10 +66,10 @@ public class Texture {
 	 */
 	public void bind(GL10 gl) {
 		// binds the texture
-		gl.glBindTexture(GL10.GL_TEXTURE_2D, texture[0]);
+		GlState.bindTexture(gl, texture[0]);
 
 		// makes gl point to the texture coordinates buffer
-		gl.glTexCoordPointer(2, GL10.GL_FLOAT, 0, textureBuffer);
+		GlState.texCoordPointer(gl, textureBuffer);
 	}
 
 	/**
@@ -79,12 +79,14 @@ public class Texture {
 	 * 
 	 * @param gl
 	 *            the GL object.
-	 * @param context
-	 *            the context the context in which the drawable resource is.
+	 * @param bitmap
+	 *            the image of the texture, as returned by
+	 *            {@link #decode(Context) decode(...)}. It's not recycled, so
+	 *            that it can be loaded again in a new OpenGL context.
 	 * 
 	 * @see Graphics#onSurfaceCreated(GL10 gl, EGLConfig config)
 	 */
-	public void load(GL10 gl, Context context) {
+	public void load(GL10 gl, Bitmap bitmap) {
 		float[] textureVertices = {
 				0.0f, 0.0f,	// top left vertex
 				0.0f, 1.0f,	// bottom left vertex
@@ -107,23 +109,10 @@ public class Texture {
 		// sets the position of the texture's vertex buffer to the start
 		textureBuffer.position(0);
 
-		// opens the input stream of the texture's resource from the resource ID
-		InputStream is = context.getResources().openRawResource(textureID);
-		// decodes the input stream to a bitmap
-		Bitmap bitmap = BitmapFactory.decodeStream(is);
-
-		// closes input stream
-		try {
-			is.close();
-			is = null;
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-
 		// generates the texture
 		gl.glGenTextures(1, texture, 0);
 		// binds the texture
-		gl.glBindTexture(GL10.GL_TEXTURE_2D, texture[0]);
+		GlState.bindTexture(gl, texture[0]);
 
 		// creates nearest filtered texture
 		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_MIN_FILTER,
@@ -139,8 +128,54 @@ public class Texture {
 
 		// determines the internalFormat and type of the bitmap
 		GLUtils.texImage2D(GL10.GL_TEXTURE_2D, 0, bitmap, 0);
+	}
+
+	/**
+	 * Decodes the drawable resource of the texture, as a 32 bits bitmap.
+	 * 
+	 * @param context
+	 *            the context in which the drawable resource is.
+	 * 
+	 * @return the bitmap, which should be recycled when it's not needed
+	 *         anymore.
+	 */
+	public Bitmap decode(Context context) {
+		// all the images have the same format, so that they can be packed in
+		// a single texture
+		BitmapFactory.Options options = new BitmapFactory.Options();
+		options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+
+		// opens the input stream of the texture's resource from the resource ID
+		InputStream is = context.getResources().openRawResource(textureID);
+		// decodes the input stream to a bitmap
+		Bitmap bitmap = BitmapFactory.decodeStream(is, null, options);
 
-		// frees the native object associated to the bitmap
-		bitmap.recycle();
+		// closes input stream
+		try {
+			is.close();
+			is = null;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		return bitmap;
+	}
+
+	/**
+	 * Makes the texture a region of a texture atlas, already loaded. Binding
+	 * it binds the atlas, and makes gl point to the texture coordinates of the
+	 * region.
+	 * 
+	 * @param atlas
+	 *            the name of the atlas texture.
+	 * @param textureBuffer
+	 *            the texture coordinates of the region, shared with the other
+	 *            regions of the atlas.
+	 * 
+	 * @see TextureAtlas#getTextureCoordinates(int)
+	 */
+	public void setRegion(int atlas, FloatBuffer textureBuffer) {
+		texture = new int[] { atlas };
+		this.textureBuffer = textureBuffer;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The layout of several images packed into a single texture, so that they can
+ * be drawn without binding a different texture for each one.
+ * <p>
+ * The images are placed on shelves, the tallest first, and the size of the
+ * texture is the smallest power of two rectangle that holds them. Every image
+ * is mapped with its texture coordinates inset by half a texel, so that the
+ * linear filtering doesn't blend it with its neighbors.
+ * 
+ * @author Maze-Android contributors
+ */
+public class TextureAtlas {
+	private int width;
+	private int height;
+
+	// the position of every image in the texture: x, y, width, height
+	private int[] regions;
+
+	/**
+	 * Packs the images with the given sizes.
+	 * 
+	 * @param widths
+	 *            the width of every image, in pixels.
+	 * @param heights
+	 *            the height of every image, in pixels.
+	 * @param maxSize
+	 *            the maximum width and height of the texture, in pixels.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the images don't fit in a texture of the maximum size.
+	 */
+	public TextureAtlas(int[] widths, int[] heights, int maxSize) {
+		int count = widths.length;
+
+		// the images are placed from the tallest one
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++)
+			order[i] = i;
+		final int[] h = heights;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return h[b] - h[a];
+			}
+		});
+
+		int minWidth = 1;
+		for (int w : widths)
+			while (minWidth < w)
+				minWidth *= 2;
+
+		// tries every power of two width, keeping the smallest texture
+		int[] packed = new int[count * 4];
+		for (int w = minWidth; w <= maxSize; w *= 2) {
+			int used = pack(widths, heights, order, w, packed);
+			int hh = 1;
+			while (hh < used)
+				hh *= 2;
+
+			// on equal areas, the squarer texture is kept
+			if (hh > maxSize)
+				continue;
+			if (regions == null || w * hh < width * height
+					|| (w * hh == width * height && hh >= w)) {
+				width = w;
+				height = hh;
+				regions = packed.clone();
+			}
+		}
+
+		if (regions == null)
+			throw new IllegalArgumentException("The images don't fit in a "
+					+ maxSize + " pixels texture");
+	}
+
+	/**
+	 * Places the images on shelves as wide as the texture, and returns the
+	 * height they take.
+	 */
+	private static int pack(int[] widths, int[] heights, Integer[] order,
+			int width, int[] regions) {
+		int x = 0;
+		int y = 0;
+		int shelf = 0;
+
+		for (int i : order) {
+			// starts a new shelf if the image doesn't fit in this one
+			if (x + widths[i] > width) {
+				x = 0;
+				y += shelf;
+				shelf = 0;
+			}
+
+			regions[i * 4] = x;
+			regions[i * 4 + 1] = y;
+			regions[i * 4 + 2] = widths[i];
+			regions[i * 4 + 3] = heights[i];
+
+			x += widths[i];
+			shelf = Math.max(shelf, heights[i]);
+		}
+
+		return y + shelf;
+	}
+
+	/**
+	 * Returns the width of the texture.
+	 * 
+	 * @return the width, in pixels.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the texture.
+	 * 
+	 * @return the height, in pixels.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the x coordinate of the left edge of an image in the texture.
+	 * 
+	 * @param index
+	 *            the index of the image.
+	 * 
+	 * @return the x coordinate, in pixels.
+	 */
+	public int getX(int index) {
+		return regions[index * 4];
+	}
+
+	/**
+	 * Returns the y coordinate of the top edge of an image in the texture.
+	 * 
+	 * @param index
+	 *            the index of the image.
+	 * 
+	 * @return the y coordinate, in pixels.
+	 */
+	public int getY(int index) {
+		return regions[index * 4 + 1];
+	}
+
+	/**
+	 * Returns the texture coordinates of the corners of an image, in the
+	 * order of the vertices of a rectangle: top left, bottom left, top right
+	 * and bottom right.
+	 * 
+	 * @param index
+	 *            the index of the image.
+	 * 
+	 * @return an array of eight floats (s, t).
+	 */
+	public float[] getTextureCoordinates(int index) {
+		float left = (regions[index * 4] + 0.5f) / width;
+		float top = (regions[index * 4 + 1] + 0.5f) / height;
+		float right = (regions[index * 4] + regions[index * 4 + 2] - 0.5f)
+				/ width;
+		float bottom = (regions[index * 4 + 1] + regions[index * 4 + 3] - 0.5f)
+				/ height;
+
+		return new float[] { left, top, left, bottom, right, top, right,
+				bottom };
+	}
+}
\ No newline at end of file
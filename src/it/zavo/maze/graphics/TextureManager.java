@@ -24,19 +24,40 @@ package it.zavo.maze.graphics;
 
 import it.zavo.maze.util.Tex;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 import javax.microedition.khronos.opengles.GL10;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.opengl.GLUtils;
+import android.util.Log;
 
 /**
  * Static class that manages the textures.
+ * <p>
+ * All the textures are packed in a single {@link TextureAtlas texture atlas},
+ * so that switching between them doesn't need a new bind, unless the atlas is
+ * too big for the device: then every texture is loaded on its own. A frame of
+ * the game still binds two textures, the atlas and the one of the
+ * {@link StaticLayer static layer}.
  * 
  * @author Marco Mandrioli
  */
 public class TextureManager {
+	/**
+	 * the tag of the log messages.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String TAG = "Maze";
+
 	private static ArrayList<Texture> textures;
+	// the decoded images, kept between OpenGL contexts
+	private static Bitmap[] bitmaps;
 
 	/**
 	 * Initializes the textures, taking the data from the
@@ -52,23 +73,135 @@ public class TextureManager {
 	}
 
 	/**
-	 * Loads the textures, calling the {@link Texture#load(GL10, Context)
-	 * load(GL10 gl, Context context)} methods of every texture.
+	 * Loads the textures, packed in an atlas or calling the
+	 * {@link Texture#load(GL10, Bitmap) load(GL10 gl, Bitmap bitmap)} methods
+	 * of every texture. The images are decoded only the first time, and kept
+	 * to be loaded again quickly every time the OpenGL context is lost.
 	 * 
 	 * @param gl
 	 *            the GL object.
 	 * @param context
 	 *            the context in which the drawable resources are.
 	 * 
-	 * @see Texture#load(GL10 gl, Context context)
+	 * @see Texture#load(GL10 gl, Bitmap bitmap)
 	 */
 	public static void loadTextures(GL10 gl, Context context) {
+		long begin = System.nanoTime();
+
+		// decodes the images, unless they're still in memory
+		boolean restore = bitmaps != null;
+		getBitmaps(context);
+
+		// calls the load method of every Texture, if they can't be packed
+		if (!loadAtlas(gl))
+			for (int i = 0; i < bitmaps.length; i++)
+				textures.get(i).load(gl, bitmaps[i]);
+
+		Log.d(TAG, "textures " + (restore ? "restored" : "decoded and loaded")
+				+ " in " + (System.nanoTime() - begin) / 1000000 + " ms");
+	}
+
+	/**
+	 * Returns the decoded images of all the textures, decoding them if they're
+	 * not in memory. They're kept until {@link #releasePixels()} is called.
+	 * 
+	 * @param context
+	 *            the context in which the drawable resources are.
+	 * 
+	 * @return the images, in the order of the
+	 *         {@link it.zavo.maze.util.Tex#index indices} of the textures.
+	 */
+	public static synchronized Bitmap[] getBitmaps(Context context) {
 		// initializes the texture manager
-		init();
+		if (textures == null)
+			init();
+
+		if (bitmaps == null) {
+			bitmaps = new Bitmap[textures.size()];
+			for (int i = 0; i < bitmaps.length; i++)
+				bitmaps[i] = textures.get(i).decode(context);
+		}
+
+		return bitmaps;
+	}
+
+	/**
+	 * Frees the decoded images, e.g. when the system is low on memory or the
+	 * game is closed. They are decoded again the next time the textures are
+	 * loaded.
+	 */
+	public static synchronized void releasePixels() {
+		if (bitmaps == null)
+			return;
+
+		for (Bitmap b : bitmaps)
+			b.recycle();
+		bitmaps = null;
+	}
+
+	/**
+	 * Packs all the textures in an atlas, and loads it. The textures become
+	 * regions of the atlas, with their texture coordinates in a single shared
+	 * buffer.
+	 * 
+	 * @return <code>true</code> if the atlas has been loaded,
+	 *         <code>false</code> if it's too big.
+	 */
+	private static boolean loadAtlas(GL10 gl) {
+		int[] widths = new int[bitmaps.length];
+		int[] heights = new int[bitmaps.length];
+		for (int i = 0; i < bitmaps.length; i++) {
+			widths[i] = bitmaps[i].getWidth();
+			heights[i] = bitmaps[i].getHeight();
+		}
+
+		int[] maxSize = new int[1];
+		gl.glGetIntegerv(GL10.GL_MAX_TEXTURE_SIZE, maxSize, 0);
+
+		TextureAtlas atlas;
+		try {
+			atlas = new TextureAtlas(widths, heights, maxSize[0]);
+		} catch (IllegalArgumentException e) {
+			// the textures are loaded one by one
+			return false;
+		}
+
+		// generates and binds the atlas texture
+		int[] texture = new int[1];
+		gl.glGenTextures(1, texture, 0);
+		GlState.bindTexture(gl, texture[0]);
+
+		// the same parameters of the single textures
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_MIN_FILTER,
+				GL10.GL_NEAREST);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_MAG_FILTER,
+				GL10.GL_LINEAR);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_WRAP_S,
+				GL10.GL_CLAMP_TO_EDGE);
+		gl.glTexParameterf(GL10.GL_TEXTURE_2D, GL10.GL_TEXTURE_WRAP_T,
+				GL10.GL_CLAMP_TO_EDGE);
+
+		// allocates the atlas, then copies every image in its region
+		gl.glTexImage2D(GL10.GL_TEXTURE_2D, 0, GL10.GL_RGBA,
+				atlas.getWidth(), atlas.getHeight(), 0, GL10.GL_RGBA,
+				GL10.GL_UNSIGNED_BYTE, null);
+
+		// the texture coordinates of all the regions, eight floats each
+		ByteBuffer byteBuf = ByteBuffer.allocateDirect(bitmaps.length * 8 * 4);
+		byteBuf.order(ByteOrder.nativeOrder());
+		FloatBuffer coordinates = byteBuf.asFloatBuffer();
+
+		for (int i = 0; i < bitmaps.length; i++) {
+			GLUtils.texSubImage2D(GL10.GL_TEXTURE_2D, 0, atlas.getX(i),
+					atlas.getY(i), bitmaps[i]);
+
+			coordinates.position(i * 8);
+			coordinates.put(atlas.getTextureCoordinates(i));
+			coordinates.position(i * 8);
+			textures.get(i).setRegion(texture[0], coordinates.slice());
+		}
 
-		// calls the load method of every Texture.
-		for (Texture t : textures)
-			t.load(gl, context);
+		return true;
 	}
 
 	/**
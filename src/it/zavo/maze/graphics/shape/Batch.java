@@ -0,0 +1,356 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics.shape;
+
+import it.zavo.maze.graphics.DrawCalls;
+import it.zavo.maze.graphics.GlState;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11;
+
+/**
+ * A batch of static shapes with the same topology, drawn with a single indexed
+ * draw call. The vertices of all the shapes, and their colors if they're not
+ * all the same, are packed in a single buffer, which is uploaded to a vertex
+ * buffer object on the first draw if the OpenGL ES version supports it.
+ * <p>
+ * The indices are unsigned shorts, so when the vertices are more than
+ * {@value #MAX_VERTICES} the batch is drawn in chunks, with one call each.
+ * Since every shape has the same topology, all the chunks share the same
+ * indices.
+ * 
+ * @author Maze-Android contributors
+ */
+public class Batch {
+	/**
+	 * the maximum number of vertices that can be addressed by a single draw
+	 * call.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int MAX_VERTICES = 65536;
+
+	private int shapesCount;
+	private int shapeVertices;
+	private int shapeIndices;
+	// the number of shapes drawn by a single call
+	private int chunkShapes;
+
+	private FloatBuffer vertexBuffer;
+	private ShortBuffer indexBuffer;
+	// four bytes (RGBA) per vertex, or null if all the shapes have the same color
+	private ByteBuffer colorBuffer;
+	private float[] color;
+
+	// the vertex, index and color buffer objects, 0 if not uploaded
+	private int[] buffers = new int[3];
+	// whether the buffer objects can be used, checked once per context
+	private boolean vboChecked = false;
+	private boolean vboSupported;
+
+	/**
+	 * Constructs a new batch.
+	 * 
+	 * @param vertices
+	 *            the vertices of all the shapes, two floats (x, y) each.
+	 * @param shapeVertices
+	 *            the number of vertices of every shape.
+	 * @param shapeIndices
+	 *            the indices of the triangles of a shape, relative to its
+	 *            first vertex.
+	 * @param red
+	 *            the red channel of the color.
+	 * @param green
+	 *            the green channel of the color.
+	 * @param blue
+	 *            the blue channel of the color.
+	 * @param alpha
+	 *            the alpha channel (transparency) of the color.
+	 */
+	public Batch(float[] vertices, int shapeVertices, short[] shapeIndices,
+			float red, float green, float blue, float alpha) {
+		this(vertices, null, shapeVertices, shapeIndices);
+
+		color = new float[] { red, green, blue, alpha };
+	}
+
+	/**
+	 * Constructs a new batch whose vertices have different colors.
+	 * 
+	 * @param vertices
+	 *            the vertices of all the shapes, two floats (x, y) each.
+	 * @param colors
+	 *            the colors of all the vertices, four bytes (red, green, blue
+	 *            and alpha, from 0 to 255) each.
+	 * @param shapeVertices
+	 *            the number of vertices of every shape.
+	 * @param shapeIndices
+	 *            the indices of the triangles of a shape, relative to its
+	 *            first vertex.
+	 */
+	public Batch(float[] vertices, byte[] colors, int shapeVertices,
+			short[] shapeIndices) {
+		this.shapeVertices = shapeVertices;
+		this.shapeIndices = shapeIndices.length;
+		shapesCount = vertices.length / 2 / shapeVertices;
+		chunkShapes = Math.max(1, Math.min(shapesCount, MAX_VERTICES
+				/ shapeVertices));
+		color = new float[] { 1.0f, 1.0f, 1.0f, 1.0f };
+
+		// constructs a buffer of bytes to store the vertices array (float = 4
+		// bytes), in the platform's byte order
+		vertexBuffer = ByteBuffer.allocateDirect(vertices.length * 4)
+				.order(ByteOrder.nativeOrder()).asFloatBuffer();
+		vertexBuffer.put(vertices);
+		vertexBuffer.position(0);
+
+		// the indices of the shapes of a chunk (short = 2 bytes)
+		indexBuffer = ByteBuffer
+				.allocateDirect(chunkShapes * shapeIndices.length * 2)
+				.order(ByteOrder.nativeOrder()).asShortBuffer();
+		for (int s = 0; s < chunkShapes; s++)
+			for (short i : shapeIndices)
+				indexBuffer.put((short) (s * shapeVertices + i));
+		indexBuffer.position(0);
+
+		if (colors != null) {
+			colorBuffer = ByteBuffer.allocateDirect(colors.length);
+			colorBuffer.put(colors);
+			colorBuffer.position(0);
+		}
+	}
+
+	/**
+	 * Draws all the shapes of the batch.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	public void draw(GL10 gl) {
+		if (shapesCount == 0)
+			return;
+
+		if (!vboChecked) {
+			vboSupported = isVboSupported(gl);
+			vboChecked = true;
+		}
+		if (buffers[0] == 0 && vboSupported)
+			upload((GL11) gl);
+
+		// enables the vertex array client state, and the color array one if
+		// the shapes have their own colors
+		GlState.clientStates(gl, true, false, colorBuffer != null);
+
+		// sets the color of the shapes
+		if (colorBuffer == null)
+			GlState.color(gl, color[0], color[1], color[2], color[3]);
+
+		if (buffers[0] != 0)
+			GlState.bindBuffer((GL11) gl, GL11.GL_ELEMENT_ARRAY_BUFFER,
+					buffers[1]);
+
+		for (int first = 0; first < shapesCount; first += chunkShapes) {
+			int shapes = Math.min(chunkShapes, shapesCount - first);
+
+			// makes gl point to the first vertex of the chunk
+			if (buffers[0] != 0) {
+				GL11 gl11 = (GL11) gl;
+				GlState.bindBuffer(gl11, GL11.GL_ARRAY_BUFFER, buffers[0]);
+				GlState.vertexPointer(gl11, first * shapeVertices * 2 * 4);
+				if (colorBuffer != null) {
+					GlState.bindBuffer(gl11, GL11.GL_ARRAY_BUFFER, buffers[2]);
+					GlState.colorPointer(gl11, first * shapeVertices * 4);
+				}
+				gl11.glDrawElements(GL10.GL_TRIANGLES, shapes * shapeIndices,
+						GL10.GL_UNSIGNED_SHORT, 0);
+			} else {
+				vertexBuffer.position(first * shapeVertices * 2);
+				GlState.vertexPointer(gl, vertexBuffer);
+				if (colorBuffer != null) {
+					colorBuffer.position(first * shapeVertices * 4);
+					GlState.colorPointer(gl, colorBuffer);
+				}
+				gl.glDrawElements(GL10.GL_TRIANGLES, shapes * shapeIndices,
+						GL10.GL_UNSIGNED_SHORT, indexBuffer);
+			}
+			DrawCalls.add();
+		}
+
+		// the buffer objects stay bound, the other shapes unbind them when
+		// they set a client pointer
+		if (buffers[0] == 0) {
+			vertexBuffer.position(0);
+			if (colorBuffer != null)
+				colorBuffer.position(0);
+		}
+	}
+
+	/**
+	 * Tells if vertex buffer objects can be used, i.e. if the OpenGL ES
+	 * version is at least 1.1.
+	 */
+	private static boolean isVboSupported(GL10 gl) {
+		String version = gl.glGetString(GL10.GL_VERSION);
+
+		return gl instanceof GL11 && version != null
+				&& !version.contains("1.0");
+	}
+
+	/** Copies the vertices, the indices and the colors to buffer objects. */
+	private void upload(GL11 gl) {
+		gl.glGenBuffers(colorBuffer != null ? 3 : 2, buffers, 0);
+
+		GlState.bindBuffer(gl, GL11.GL_ARRAY_BUFFER, buffers[0]);
+		gl.glBufferData(GL11.GL_ARRAY_BUFFER, vertexBuffer.capacity() * 4,
+				vertexBuffer, GL11.GL_STATIC_DRAW);
+
+		GlState.bindBuffer(gl, GL11.GL_ELEMENT_ARRAY_BUFFER, buffers[1]);
+		gl.glBufferData(GL11.GL_ELEMENT_ARRAY_BUFFER,
+				indexBuffer.capacity() * 2, indexBuffer, GL11.GL_STATIC_DRAW);
+
+		if (colorBuffer != null) {
+			GlState.bindBuffer(gl, GL11.GL_ARRAY_BUFFER, buffers[2]);
+			gl.glBufferData(GL11.GL_ARRAY_BUFFER, colorBuffer.capacity(),
+					colorBuffer, GL11.GL_STATIC_DRAW);
+		}
+	}
+
+	/**
+	 * Deletes the buffer objects, if any. The batch can still be drawn, and
+	 * uploads them again.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	public void release(GL10 gl) {
+		if (buffers[0] != 0) {
+			((GL11) gl).glDeleteBuffers(colorBuffer != null ? 3 : 2,
+					buffers, 0);
+			for (int buffer : buffers)
+				GlState.deletedBuffer(buffer);
+		}
+
+		invalidate();
+	}
+
+	/**
+	 * Forgets the buffer objects without deleting them, because the OpenGL
+	 * context they belonged to has been lost. They are uploaded again on the
+	 * next draw.
+	 */
+	public void invalidate() {
+		buffers[0] = 0;
+		buffers[1] = 0;
+		buffers[2] = 0;
+		vboChecked = false;
+	}
+
+	/**
+	 * Returns the number of draw calls issued by {@link #draw(GL10) draw}.
+	 * 
+	 * @return the number of draw calls.
+	 */
+	public int getDrawCalls() {
+		return (shapesCount + chunkShapes - 1) / chunkShapes;
+	}
+
+	/**
+	 * Returns the number of shapes of the batch.
+	 * 
+	 * @return the number of shapes.
+	 */
+	public int getShapesCount() {
+		return shapesCount;
+	}
+
+	/**
+	 * Returns the number of vertices of every shape.
+	 * 
+	 * @return the number of vertices.
+	 */
+	public int getShapeVertices() {
+		return shapeVertices;
+	}
+
+	/**
+	 * Returns the number of indices of every shape.
+	 * 
+	 * @return the number of indices.
+	 */
+	public int getShapeIndices() {
+		return shapeIndices;
+	}
+
+	/**
+	 * Returns the number of shapes drawn by a single call.
+	 * 
+	 * @return the number of shapes of a chunk.
+	 */
+	public int getChunkShapes() {
+		return chunkShapes;
+	}
+
+	/**
+	 * Returns the buffer of the vertices of all the shapes, for the renderers
+	 * that upload them on their own.
+	 * 
+	 * @return the vertex buffer, two floats (x, y) per vertex.
+	 */
+	public FloatBuffer getVertexBuffer() {
+		return vertexBuffer;
+	}
+
+	/**
+	 * Returns the buffer of the indices of a chunk, shared by all the chunks.
+	 * 
+	 * @return the index buffer, relative to the first vertex of the chunk.
+	 */
+	public ShortBuffer getIndexBuffer() {
+		return indexBuffer;
+	}
+
+	/**
+	 * Returns the buffer of the colors of the vertices.
+	 * 
+	 * @return the color buffer, four bytes (RGBA) per vertex, or
+	 *         <code>null</code> if all the shapes have the same color.
+	 */
+	public ByteBuffer getColorBuffer() {
+		return colorBuffer;
+	}
+
+	/**
+	 * Returns the color of all the shapes.
+	 * 
+	 * @return an array of four floats (red, green, blue and alpha), white if
+	 *         the vertices have their own colors.
+	 */
+	public float[] getColor() {
+		return color.clone();
+	}
+}
\ No newline at end of file
@@ -22,6 +22,9 @@
 
 package it.zavo.maze.graphics.shape;
 
+import it.zavo.maze.graphics.DrawCalls;
+import it.zavo.maze.graphics.GlState;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -54,11 +57,12 @@ public class Circle {
 	 */
 	private final float toRad = 0.017453293f;
 
+	private float[] vertices;
 	private FloatBuffer vertexBuffer;
 	
 	/** Constructs the new singleton. */
 	private Circle() {
-		float[] vertices = new float[verticesCount * 2];
+		vertices = new float[verticesCount * 2];
 		int j = 0;
 
 		for (int i = 0; i < 360; i += 8) {
@@ -98,6 +102,16 @@ public class Circle {
 		return instance;
 	}
 
+	/**
+	 * Returns the vertices of the circle of radius 1 centered in the origin,
+	 * in the order of a triangle fan.
+	 * 
+	 * @return an array of two floats (x, y) per vertex.
+	 */
+	public float[] getVertices() {
+		return vertices.clone();
+	}
+
 	/**
 	 * Draws the circle of the given color, with the given radius, in the given
 	 * position.
@@ -121,14 +135,14 @@ public class Circle {
 	 */
 	public void draw(GL10 gl, float x, float y, float radius, float red,
 			float green, float blue, float alpha) {
-		// enables the vertex array client state
-		gl.glEnableClientState(GL10.GL_VERTEX_ARRAY);
+		// enables only the vertex array client state
+		GlState.clientStates(gl, true, false, false);
 
 		// makes gl point to the vertex buffer
-		gl.glVertexPointer(2, GL10.GL_FLOAT, 0, vertexBuffer);
+		GlState.vertexPointer(gl, vertexBuffer);
 
 		// sets the circle color
-		gl.glColor4f(red, green, blue, alpha);
+		GlState.color(gl, red, green, blue, alpha);
 
 		// pushes the matrix stack
 		gl.glPushMatrix();
@@ -139,11 +153,9 @@ public class Circle {
 
 		// draws the vertices as triangle fan
 		gl.glDrawArrays(GL10.GL_TRIANGLE_FAN, 0, verticesCount);
+		DrawCalls.add();
 
 		// pops back to the previous matrix in the stack
 		gl.glPopMatrix();
-
-		// disables the vertex array client state
-		gl.glDisableClientState(GL10.GL_VERTEX_ARRAY);
 	}
 }
\ No newline at end of file
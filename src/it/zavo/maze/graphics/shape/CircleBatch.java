@@ -0,0 +1,98 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics.shape;
+
+/**
+ * A batch of fixed-position circles, each of its own color, drawn with a
+ * single call and without any matrix transformation: every circle is
+ * tessellated like the {@link Circle} singleton and moved to its place when
+ * the batch is built.
+ * 
+ * @author Maze-Android contributors
+ * 
+ * @see Circle
+ */
+public class CircleBatch extends Batch {
+	/**
+	 * Constructs a new batch of circles.
+	 * 
+	 * @param circles
+	 *            three floats per circle: x and y coordinates of the center
+	 *            and radius.
+	 * @param colors
+	 *            four floats per circle: red, green, blue and alpha channels
+	 *            of the color.
+	 */
+	public CircleBatch(float[] circles, float[] colors) {
+		super(vertices(circles), colors(circles.length / 3, colors),
+				Circle.getSingleton().getVertices().length / 2, indices());
+	}
+
+	/** Returns the vertices of every circle, translated and scaled. */
+	private static float[] vertices(float[] circles) {
+		float[] circle = Circle.getSingleton().getVertices();
+		float[] vertices = new float[circles.length / 3 * circle.length];
+
+		for (int c = 0; c < circles.length / 3; c++) {
+			float x = circles[c * 3];
+			float y = circles[c * 3 + 1];
+			float radius = circles[c * 3 + 2];
+			int v = c * circle.length;
+
+			for (int i = 0; i < circle.length; i += 2) {
+				vertices[v + i] = x + circle[i] * radius;
+				vertices[v + i + 1] = y + circle[i + 1] * radius;
+			}
+		}
+
+		return vertices;
+	}
+
+	/** Returns the color of every vertex, as bytes. */
+	private static byte[] colors(int count, float[] colors) {
+		int circleVertices = Circle.getSingleton().getVertices().length / 2;
+		byte[] bytes = new byte[count * circleVertices * 4];
+
+		for (int c = 0; c < count; c++)
+			for (int i = 0; i < circleVertices; i++)
+				for (int channel = 0; channel < 4; channel++)
+					bytes[(c * circleVertices + i) * 4 + channel] = (byte) Math
+							.round(colors[c * 4 + channel] * 255);
+
+		return bytes;
+	}
+
+	/** Returns the triangles of the fan of a circle. */
+	private static short[] indices() {
+		int circleVertices = Circle.getSingleton().getVertices().length / 2;
+		short[] indices = new short[(circleVertices - 2) * 3];
+
+		for (int t = 0; t < circleVertices - 2; t++) {
+			indices[t * 3] = 0;
+			indices[t * 3 + 1] = (short) (t + 1);
+			indices[t * 3 + 2] = (short) (t + 2);
+		}
+
+		return indices;
+	}
+}
\ No newline at end of file
@@ -22,6 +22,8 @@
 
 package it.zavo.maze.graphics.shape;
 
+import it.zavo.maze.graphics.DrawCalls;
+import it.zavo.maze.graphics.GlState;
 import it.zavo.maze.graphics.TextureManager;
 import it.zavo.maze.util.Tex;
 
@@ -38,7 +40,8 @@ import javax.microedition.khronos.opengles.GL10;
  */
 public class Rectangle {
 	protected float[] vertices;
-	private FloatBuffer vertexBuffer;
+	// built on the first draw, so only the drawn rectangles allocate one
+	private FloatBuffer vertexBuffer = null;
 
 	private float[] color = new float[] { 0.0f, 0.0f, 0.0f, 1.0f };
 
@@ -62,18 +65,6 @@ public class Rectangle {
 				right, top,		// top right vertex
 				right, bottom	// bottom right vertex
 		};
-
-		// constructs a buffer of bytes to store the vertices array (float = 4
-		// bytes)
-		ByteBuffer byteBuf = ByteBuffer.allocateDirect(vertices.length * 4);
-		// sets the byte order to the platform's (Little Endian or Big Endian)
-		byteBuf.order(ByteOrder.nativeOrder());
-		// converts the byte buffer to a vertex buffer (float)
-		vertexBuffer = byteBuf.asFloatBuffer();
-		// puts the vertices in the vertex buffer
-		vertexBuffer.put(vertices);
-		// sets the position of the vertex buffer to the start
-		vertexBuffer.position(0);
 	}
 
 	/**
@@ -106,6 +97,31 @@ public class Rectangle {
 		color[3] = alpha;
 	}
 
+	/**
+	 * Returns the buffer of the vertices, building it the first time.
+	 * 
+	 * @return the vertex buffer.
+	 */
+	private FloatBuffer getVertexBuffer() {
+		if (vertexBuffer == null) {
+			// constructs a buffer of bytes to store the vertices array (float
+			// = 4 bytes)
+			ByteBuffer byteBuf = ByteBuffer
+					.allocateDirect(vertices.length * 4);
+			// sets the byte order to the platform's (Little Endian or Big
+			// Endian)
+			byteBuf.order(ByteOrder.nativeOrder());
+			// converts the byte buffer to a vertex buffer (float)
+			vertexBuffer = byteBuf.asFloatBuffer();
+			// puts the vertices in the vertex buffer
+			vertexBuffer.put(vertices);
+			// sets the position of the vertex buffer to the start
+			vertexBuffer.position(0);
+		}
+
+		return vertexBuffer;
+	}
+
 	/**
 	 * Draws the untextured rectangle.
 	 * 
@@ -113,20 +129,18 @@ public class Rectangle {
 	 *            the GL object.
 	 */
 	public void draw(GL10 gl) {
-		// enables the vertex array client state
-		gl.glEnableClientState(GL10.GL_VERTEX_ARRAY);
+		// enables only the vertex array client state
+		GlState.clientStates(gl, true, false, false);
 
 		// makes gl point to the vertex buffer
-		gl.glVertexPointer(2, GL10.GL_FLOAT, 0, vertexBuffer);
+		GlState.vertexPointer(gl, getVertexBuffer());
 
 		// sets the rectangle color
-		gl.glColor4f(color[0], color[1], color[2], color[3]);
+		GlState.color(gl, color[0], color[1], color[2], color[3]);
 
 		// draws the vertices as triangle strip
 		gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, vertices.length / 2);
-
-		// disables the vertex array client state
-		gl.glDisableClientState(GL10.GL_VERTEX_ARRAY);
+		DrawCalls.add();
 	}
 
 	/**
@@ -140,26 +154,20 @@ public class Rectangle {
 	 * @see it.zavo.maze.util.Tex enum Tex
 	 */
 	public void draw(GL10 gl, Tex tex) {
-		// enables the vertex array client state
-		gl.glEnableClientState(GL10.GL_VERTEX_ARRAY);
-		// enables the texture coordinates array client state
-		gl.glEnableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
+		// enables the vertex and texture coordinates array client states
+		GlState.clientStates(gl, true, true, false);
 
 		// makes gl point to the vertex buffer
-		gl.glVertexPointer(2, GL10.GL_FLOAT, 0, vertexBuffer);
+		GlState.vertexPointer(gl, getVertexBuffer());
 
 		// binds the texture to the rectangle
 		TextureManager.bindTexture(gl, tex);
 
 		// sets the blending color
-		gl.glColor4f(color[0], color[1], color[2], color[3]);
+		GlState.color(gl, color[0], color[1], color[2], color[3]);
 
 		// draws the vertices as triangle strip
 		gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, vertices.length / 2);
-
-		// disables the vertex array client state
-		gl.glDisableClientState(GL10.GL_VERTEX_ARRAY);
-		// disables the texture coordinates array client state
-		gl.glDisableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
+		DrawCalls.add();
 	}
 }
\ No newline at end of file
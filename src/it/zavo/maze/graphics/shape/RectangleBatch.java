@@ -0,0 +1,84 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.graphics.shape;
+
+/**
+ * A batch of fixed-position rectangles of the same color, drawn with a single
+ * call.
+ * 
+ * @author Maze-Android contributors
+ * 
+ * @see Rectangle
+ */
+public class RectangleBatch extends Batch {
+	/**
+	 * the two triangles of a rectangle, whose vertices are in the same order
+	 * of {@link Rectangle}.
+	 */
+	private static final short[] INDICES = new short[] { 0, 1, 2, 2, 1, 3 };
+
+	/**
+	 * Constructs a new batch of rectangles of the given color.
+	 * 
+	 * @param rectangles
+	 *            four floats per rectangle: left, right, top and bottom
+	 *            sides.
+	 * @param red
+	 *            the red channel of the color.
+	 * @param green
+	 *            the green channel of the color.
+	 * @param blue
+	 *            the blue channel of the color.
+	 * @param alpha
+	 *            the alpha channel (transparency) of the color.
+	 */
+	public RectangleBatch(float[] rectangles, float red, float green,
+			float blue, float alpha) {
+		super(vertices(rectangles), 4, INDICES, red, green, blue, alpha);
+	}
+
+	/** Returns the four vertices of every rectangle. */
+	private static float[] vertices(float[] rectangles) {
+		float[] vertices = new float[rectangles.length * 2];
+
+		for (int r = 0; r < rectangles.length / 4; r++) {
+			float left = rectangles[r * 4];
+			float right = rectangles[r * 4 + 1];
+			float top = rectangles[r * 4 + 2];
+			float bottom = rectangles[r * 4 + 3];
+			int v = r * 8;
+
+			// top left, bottom left, top right and bottom right vertices
+			vertices[v] = left;
+			vertices[v + 1] = top;
+			vertices[v + 2] = left;
+			vertices[v + 3] = bottom;
+			vertices[v + 4] = right;
+			vertices[v + 5] = top;
+			vertices[v + 6] = right;
+			vertices[v + 7] = bottom;
+		}
+
+		return vertices;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,334 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+/**
+ * Static bounding volume hierarchy of axis-aligned boxes. The tree is built
+ * top-down once, splitting every node at the median of its longest axis, and
+ * is stored in flat arrays so that queries don't allocate.
+ * <p>
+ * Unlike a uniform grid, the cost of a query stays logarithmic however large
+ * and unevenly dense the maze is.
+ * 
+ * @author Maze-Android contributors
+ */
+public class AabbTree {
+	/**
+	 * the maximum number of items stored in a leaf.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int LEAF_SIZE = 4;
+
+	private int itemsCount;
+	private int nodesCount = 0;
+
+	// min x, min y, max x, max y of every node
+	private float[] nodeBounds;
+	// index of the right child (the left child always follows its parent)
+	private int[] nodeRight;
+	// first item and number of items of the leaves (0 for the inner nodes)
+	private int[] nodeStart;
+	private int[] nodeCount;
+
+	// item indices, reordered so that every leaf holds a contiguous range
+	private int[] items;
+	// boxes of the items, in the same order as the item indices
+	private float[] itemBounds;
+
+	private int[] stack;
+	private int[] result;
+
+	private int depth = 0;
+	private int leaves = 0;
+	private int minLeafItems = Integer.MAX_VALUE;
+	private int maxLeafItems = 0;
+	private long buildTime;
+
+	/**
+	 * Builds the tree of the given boxes.
+	 * 
+	 * @param bounds
+	 *            an array of four floats per item: min x, min y, max x, max y.
+	 */
+	public AabbTree(float[] bounds) {
+		long begin = System.nanoTime();
+
+		itemsCount = bounds.length / 4;
+
+		// a binary tree with leaves of at least one item has less than twice
+		// as many nodes as items
+		int capacity = Math.max(1, 2 * itemsCount);
+		nodeBounds = new float[capacity * 4];
+		nodeRight = new int[capacity];
+		nodeStart = new int[capacity];
+		nodeCount = new int[capacity];
+
+		items = new int[itemsCount];
+		for (int i = 0; i < itemsCount; i++)
+			items[i] = i;
+
+		float[] centers = new float[itemsCount * 2];
+		for (int i = 0; i < itemsCount; i++) {
+			centers[i * 2] = (bounds[i * 4] + bounds[i * 4 + 2]) / 2;
+			centers[i * 2 + 1] = (bounds[i * 4 + 1] + bounds[i * 4 + 3]) / 2;
+		}
+
+		build(bounds, centers, 0, itemsCount, 1);
+
+		// copies the boxes in leaf order, so that a leaf reads them in a row
+		itemBounds = new float[itemsCount * 4];
+		for (int i = 0; i < itemsCount; i++)
+			System.arraycopy(bounds, items[i] * 4, itemBounds, i * 4, 4);
+
+		if (leaves == 0)
+			minLeafItems = 0;
+
+		stack = new int[depth + 1];
+		result = new int[itemsCount];
+
+		buildTime = (System.nanoTime() - begin) / 1000000;
+	}
+
+	/**
+	 * Builds the subtree containing the items from <code>start</code>
+	 * (included) to <code>end</code> (excluded).
+	 * 
+	 * @return the index of the root of the subtree.
+	 */
+	private int build(float[] bounds, float[] centers, int start, int end,
+			int level) {
+		int node = nodesCount++;
+
+		// computes the box enclosing all the items
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for (int i = start; i < end; i++) {
+			int item = items[i] * 4;
+			minX = Math.min(minX, bounds[item]);
+			minY = Math.min(minY, bounds[item + 1]);
+			maxX = Math.max(maxX, bounds[item + 2]);
+			maxY = Math.max(maxY, bounds[item + 3]);
+		}
+		nodeBounds[node * 4] = minX;
+		nodeBounds[node * 4 + 1] = minY;
+		nodeBounds[node * 4 + 2] = maxX;
+		nodeBounds[node * 4 + 3] = maxY;
+
+		if (level > depth)
+			depth = level;
+
+		// if few enough items are left, makes a leaf
+		if (end - start <= LEAF_SIZE) {
+			nodeStart[node] = start;
+			nodeCount[node] = end - start;
+
+			leaves++;
+			minLeafItems = Math.min(minLeafItems, end - start);
+			maxLeafItems = Math.max(maxLeafItems, end - start);
+			return node;
+		}
+
+		// splits the items at the median of the longest axis
+		int axis = (maxX - minX >= maxY - minY) ? 0 : 1;
+		int middle = (start + end) / 2;
+		select(centers, axis, start, end - 1, middle);
+
+		build(bounds, centers, start, middle, level + 1);
+		nodeRight[node] = build(bounds, centers, middle, end, level + 1);
+
+		return node;
+	}
+
+	/**
+	 * Partially sorts the items from <code>left</code> to <code>right</code>
+	 * (both included) so that the item at index <code>k</code> is the one that
+	 * would be there if they were fully sorted by center on the given axis.
+	 */
+	private void select(float[] centers, int axis, int left, int right, int k) {
+		while (right > left) {
+			float pivot = centers[items[(left + right) / 2] * 2 + axis];
+			int i = left;
+			int j = right;
+
+			while (i <= j) {
+				while (centers[items[i] * 2 + axis] < pivot)
+					i++;
+				while (centers[items[j] * 2 + axis] > pivot)
+					j--;
+
+				if (i <= j) {
+					int tmp = items[i];
+					items[i] = items[j];
+					items[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return;
+		}
+	}
+
+	/**
+	 * Finds the items whose box contains the given point. The indices are
+	 * stored in ascending order in the {@link #getResult() result} array.
+	 * 
+	 * @param x
+	 *            the x coordinate of the point.
+	 * @param y
+	 *            the y coordinate of the point.
+	 * 
+	 * @return the number of items found.
+	 */
+	public int query(float x, float y) {
+		return query(x, y, x, y);
+	}
+
+	/**
+	 * Finds the items whose box overlaps the given box. The indices are stored
+	 * in ascending order in the {@link #getResult() result} array.
+	 * 
+	 * @param minX
+	 *            the left side of the box.
+	 * @param minY
+	 *            the top side of the box.
+	 * @param maxX
+	 *            the right side of the box.
+	 * @param maxY
+	 *            the bottom side of the box.
+	 * 
+	 * @return the number of items found.
+	 */
+	public int query(float minX, float minY, float maxX, float maxY) {
+		if (itemsCount == 0)
+			return 0;
+
+		int found = 0;
+		int top = 0;
+		stack[top++] = 0;
+
+		while (top > 0) {
+			int node = stack[--top];
+			int b = node * 4;
+
+			// skips the subtree if the box is outside of its box
+			if (maxX < nodeBounds[b] || maxY < nodeBounds[b + 1]
+					|| minX > nodeBounds[b + 2] || minY > nodeBounds[b + 3])
+				continue;
+
+			if (nodeCount[node] > 0) {
+				for (int i = nodeStart[node]; i < nodeStart[node]
+						+ nodeCount[node]; i++) {
+					b = i * 4;
+					if (maxX >= itemBounds[b] && maxY >= itemBounds[b + 1]
+							&& minX <= itemBounds[b + 2]
+							&& minY <= itemBounds[b + 3])
+						result[found++] = items[i];
+				}
+			} else {
+				stack[top++] = nodeRight[node];
+				stack[top++] = node + 1;
+			}
+		}
+
+		// sorts the items, so that they are processed in the maze order
+		for (int i = 1; i < found; i++) {
+			int item = result[i];
+			int j = i - 1;
+			while (j >= 0 && result[j] > item) {
+				result[j + 1] = result[j];
+				j--;
+			}
+			result[j + 1] = item;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Returns the array containing the items found by the last
+	 * query. The array is not copied and must not
+	 * be modified.
+	 * 
+	 * @return the item indices.
+	 */
+	public int[] getResult() {
+		return result;
+	}
+
+	/**
+	 * Returns the depth of the tree.
+	 * 
+	 * @return the number of levels of the tree.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the number of nodes of the tree.
+	 * 
+	 * @return the number of nodes, leaves included.
+	 */
+	public int getNodesCount() {
+		return nodesCount;
+	}
+
+	/**
+	 * Returns the number of leaves of the tree.
+	 * 
+	 * @return the number of leaves.
+	 */
+	public int getLeavesCount() {
+		return leaves;
+	}
+
+	/**
+	 * Returns the time spent building the tree.
+	 * 
+	 * @return the build time in milliseconds.
+	 */
+	public long getBuildTime() {
+		return buildTime;
+	}
+
+	/**
+	 * Returns a report of the statistics of the tree: depth, leaf occupancy
+	 * and build time.
+	 * 
+	 * @return a single-line, human readable report.
+	 */
+	public String getStatistics() {
+		return "items=" + itemsCount + " nodes=" + nodesCount + " depth="
+				+ depth + " leaves=" + leaves + " leafItems(min/avg/max)="
+				+ minLeafItems + "/"
+				+ (leaves == 0 ? 0.0f : (float) itemsCount / leaves) + "/"
+				+ maxLeafItems + " build=" + buildTime + "ms";
+	}
+}
\ No newline at end of file
@@ -22,6 +22,8 @@
 
 package it.zavo.maze.maze;
 
+import it.zavo.maze.graphics.DrawCalls;
+import it.zavo.maze.graphics.GlState;
 import it.zavo.maze.graphics.TextureManager;
 import it.zavo.maze.graphics.shape.Circle;
 import it.zavo.maze.util.Tex;
@@ -133,19 +135,17 @@ public class Ball {
 	 * 
 	 */
 	public void draw(GL10 gl, Tex tex, float x, float y) {
-		// enables the vertex array client state
-		gl.glEnableClientState(GL10.GL_VERTEX_ARRAY);
-		// enables the texture coordinates array client state
-		gl.glEnableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
+		// enables the vertex and texture coordinates array client states
+		GlState.clientStates(gl, true, true, false);
 
 		// makes gl point to the vertex buffer
-		gl.glVertexPointer(2, GL10.GL_FLOAT, 0, vertexBuffer);
+		GlState.vertexPointer(gl, vertexBuffer);
 
 		// binds the texture to the ball
 		TextureManager.bindTexture(gl, tex);
 
 		// no blending, texture on full white
-		gl.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
+		GlState.color(gl, 1.0f, 1.0f, 1.0f, 1.0f);
 
 		// pushes the matrix stack
 		gl.glPushMatrix();
@@ -154,14 +154,10 @@ public class Ball {
 
 		// draws the vertices as triangle strip
 		gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, vertices.length / 2);
+		DrawCalls.add();
 
 		// pops back to the previous matrix in the stack
 		gl.glPopMatrix();
-
-		// disables the vertex array client state
-		gl.glDisableClientState(GL10.GL_VERTEX_ARRAY);
-		// disables the texture coordinates array client state
-		gl.glDisableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
 	}
 
 	/**
@@ -54,8 +54,26 @@ public class Hole {
 	 */
 	public Hole(float scale, float x, float y, float radius, boolean isGoal) {
 		// size is mapped to (-1, 1), so everything is multiplied by 2
-		position = new float[] { ((x * 2) / scale) - 1, (y * 2) / scale - 1 };
-		this.radius = ((radius * 2) / scale);
+		this(((x * 2) / scale) - 1, (y * 2) / scale - 1, ((radius * 2) / scale),
+				isGoal);
+	}
+
+	/**
+	 * Constructs an hole (or the goal) with a specified radius at the specified
+	 * coordinates, already mapped to the (-1, 1) space.
+	 * 
+	 * @param x
+	 *            the x coordinate of the center of the hole.
+	 * @param y
+	 *            the y coordinate of the center of the hole.
+	 * @param radius
+	 *            the radius of the hole.
+	 * @param isGoal
+	 *            tells whether this is a common hole or the goal.
+	 */
+	public Hole(float x, float y, float radius, boolean isGoal) {
+		position = new float[] { x, y };
+		this.radius = radius;
 
 		this.isGoal = isGoal;
 
@@ -95,6 +113,15 @@ public class Hole {
 		return radius;
 	}
 
+	/**
+	 * Returns the color of the hole.
+	 * 
+	 * @return an array of four floats (red, green, blue, alpha).
+	 */
+	public float[] getColor() {
+		return color.clone();
+	}
+
 	/**
 	 * Tells if the hole is the goal.
 	 * 
@@ -0,0 +1,132 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+/**
+ * The description of a level in the {@link LevelIndex index}, known without
+ * opening its maze file.
+ * 
+ * @author Maze-Android contributors
+ */
+public class Level {
+	private int resId;
+	private String name;
+	private int time;
+	private float size;
+	private int wallsCount;
+	private int holesCount;
+	private int hash;
+
+	/**
+	 * Constructs the description of a level.
+	 * 
+	 * @param resId
+	 *            the resource ID of the maze file.
+	 * @param name
+	 *            the name of the maze.
+	 * @param time
+	 *            the time limit of the maze, in seconds.
+	 * @param size
+	 *            the size of the maze, in maze units.
+	 * @param wallsCount
+	 *            the number of walls.
+	 * @param holesCount
+	 *            the number of holes, goal included.
+	 * @param hash
+	 *            the CRC-32 of the maze file.
+	 */
+	public Level(int resId, String name, int time, float size,
+			int wallsCount, int holesCount, int hash) {
+		this.resId = resId;
+		this.name = name;
+		this.time = time;
+		this.size = size;
+		this.wallsCount = wallsCount;
+		this.holesCount = holesCount;
+		this.hash = hash;
+	}
+
+	/**
+	 * Returns the resource ID of the maze file.
+	 * 
+	 * @return the resource ID.
+	 */
+	public int getResId() {
+		return resId;
+	}
+
+	/**
+	 * Returns the name of the maze.
+	 * 
+	 * @return the name of the maze.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the time limit of the maze.
+	 * 
+	 * @return the time limit in seconds.
+	 */
+	public int getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the size of the maze.
+	 * 
+	 * @return the size of the maze, in maze units.
+	 */
+	public float getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of walls.
+	 * 
+	 * @return the number of walls.
+	 */
+	public int getWallsCount() {
+		return wallsCount;
+	}
+
+	/**
+	 * Returns the number of holes, goal included.
+	 * 
+	 * @return the number of holes.
+	 */
+	public int getHolesCount() {
+		return holesCount;
+	}
+
+	/**
+	 * Returns the hash of the content of the maze file, which changes
+	 * whenever the maze is modified.
+	 * 
+	 * @return the CRC-32 of the file.
+	 */
+	public int getHash() {
+		return hash;
+	}
+}
\ No newline at end of file
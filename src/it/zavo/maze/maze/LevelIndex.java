@@ -0,0 +1,61 @@
+/* AUTO-GENERATED FILE.  DO NOT MODIFY.
+ *
+ * This class was automatically generated by the
+ * LevelIndexGenerator tool from the mazes it found
+ * in the raw resources. It should not be modified by hand.
+ */
+
+package it.zavo.maze.maze;
+
+import it.zavo.maze.R;
+
+/**
+ * The index of the levels bundled with the game.
+ */
+public final class LevelIndex {
+	private static final Level[] LEVELS = new Level[] {
+			new Level(R.raw.maze01, "Maze 01", 60, 200.0f, 6, 7, 0xc51d0a7a),
+			new Level(R.raw.maze02, "Maze 02", 150, 600.0f, 30, 106, 0x577cc96f),
+	};
+
+	private LevelIndex() {
+	}
+
+	/**
+	 * Returns the number of levels.
+	 * 
+	 * @return the number of levels.
+	 */
+	public static int getCount() {
+		return LEVELS.length;
+	}
+
+	/**
+	 * Returns a level.
+	 * 
+	 * @param index
+	 *            the index of the level, from 0 to {@link #getCount()} - 1.
+	 * 
+	 * @return the description of the level.
+	 */
+	public static Level get(int index) {
+		return LEVELS[index];
+	}
+
+	/**
+	 * Returns the level of a maze file.
+	 * 
+	 * @param resId
+	 *            the resource ID of the maze file.
+	 * 
+	 * @return the description of the level, or <code>null</code> if the
+	 *         maze file is not in the index.
+	 */
+	public static Level find(int resId) {
+		for (Level level : LEVELS)
+			if (level.getResId() == resId)
+				return level;
+
+		return null;
+	}
+}
\ No newline at end of file
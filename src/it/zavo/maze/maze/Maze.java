@@ -22,32 +22,65 @@
 
 package it.zavo.maze.maze;
 
+import it.zavo.maze.graphics.shape.CircleBatch;
+import it.zavo.maze.graphics.shape.RectangleBatch;
 import it.zavo.maze.physics.Physics;
+import it.zavo.maze.util.Binary;
+import it.zavo.maze.util.Broadphase;
 import it.zavo.maze.util.Status;
 import it.zavo.maze.util.Tex;
+import it.zavo.maze.util.Xml;
 
-import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
 
 import javax.microedition.khronos.opengles.GL10;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
 
 /**
  * Represents the maze. Contains the ball, the walls and the holes.
+ * <p>
+ * The collision checks use scratch data kept in the maze, so a maze must only
+ * be used by one thread at a time.
  * 
  * @author Marco Mandrioli
  */
 public class Maze {
+	/**
+	 * the number of walls and holes above which the
+	 * {@link it.zavo.maze.util.Broadphase#TREE TREE} broadphase is used by
+	 * default.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int TREE_THRESHOLD = 4096;
+
+	/**
+	 * the maximum number of bounces resolved along a single motion of the
+	 * ball.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int MAX_SWEEPS = 4;
+
+	/**
+	 * the distance the ball is kept from a wall it has been stopped against,
+	 * so that the next sweep doesn't hit the same wall again.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final float SKIN = 0.00001f;
+
 	// private String name;
 	private float size = 400.0f;
 
@@ -56,110 +89,68 @@ public class Maze {
 	private ArrayList<Hole> holes = new ArrayList<Hole>();
 	private float[] start;
 
+	/*
+	 * packed copy of the walls and holes used by the collision checks: two
+	 * floats (x, y) per element for centers, half sizes and positions, one
+	 * float per hole for the radii, one bit per hole for the goal flag.
+	 */
+	private int wallsCount;
+	private float[] wallCenters;
+	private float[] wallHalfSizes;
+	private int holesCount;
+	private float[] holePositions;
+	private float[] holeRadii;
+	private BitSet goals;
+	private float ballRadius;
+
+	private WallGrid grid;
+	private AabbTree tree;
+	private Broadphase broadphase = Broadphase.GRID;
+
+	private RectangleBatch wallBatch;
+	private CircleBatch holeBatch;
+	private boolean batching = true;
+
+	// the earliest impact found by the current sweep
+	private float hitTime;
+	private int hitAxis;
+
+	// the number of walls tested for collisions since the maze was built
+	private long wallsTested = 0;
+
 	/**
-	 * Constructs a new maze from an XML file.
+	 * Constructs a new maze from a maze file, either an XML file or a
+	 * compiled one.
 	 * 
 	 * @param gl
 	 *            the GL object.
 	 * @param context
 	 *            the context in which the resource is.
 	 * @param resId
-	 *            the resource ID of the XML file containing the maze data.
+	 *            the resource ID of the file containing the maze data.
 	 */
 	public Maze(GL10 gl, Context context, int resId) {
-		try {
-			// opens the input stream of the maze's XML file from the resource
-			// ID
-			InputStream is = context.getResources().openRawResource(resId);
-
-			// parses the document
-			DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory
-					.newInstance();
-			DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-			// validates the document against the XML Schema
-			// Xml.validate(is);
-			Document doc = docBuilder.parse(is);
-
-			// closes input stream
-			try {
-				is.close();
-				is = null;
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-
-			// normalizes text representation
-			doc.getDocumentElement().normalize();
-
-			/* maze */
-			// size-x -> size
-			size = Float.parseFloat(doc.getDocumentElement().getAttributes()
-					.getNamedItem("size-x").getNodeValue());
-
-			/* ball */
-			ball = new Ball(size);
-
-			/* start */
-			NodeList st = doc.getElementsByTagName("start");
-			// size is mapped to (-1, 1), so everything is multiplied by 2
-			start = new float[2];
-			// x
-			start[0] = Float.parseFloat(st.item(0).getAttributes()
-					.getNamedItem("x").getNodeValue());
-			start[0] = ((start[0] * 2) / size) - 1;
-			// y
-			start[1] = Float.parseFloat(st.item(0).getAttributes()
-					.getNamedItem("y").getNodeValue());
-			start[1] = ((start[1] * 2) / size) - 1;
-
-			/* walls */
-			NodeList wa = doc.getElementsByTagName("w");
-			for (int i = 0; i < wa.getLength(); i++)
-				// adds new wall
-				walls.add(new Wall(size, Float.parseFloat(wa.item(i)
-						.getAttributes().getNamedItem("x1").getNodeValue()),
-						Float.parseFloat(wa.item(i).getAttributes()
-								.getNamedItem("x2").getNodeValue()), Float
-								.parseFloat(wa.item(i).getAttributes()
-										.getNamedItem("y1").getNodeValue()),
-						Float.parseFloat(wa.item(i).getAttributes()
-								.getNamedItem("y2").getNodeValue())));
-
-			/* holes */
-			NodeList ho = doc.getElementsByTagName("h");
-			float radius;
-			Node node;
-			for (int i = 0; i < ho.getLength(); i++) {
-				node = ho.item(i).getAttributes().getNamedItem("radius");
-				// hole's radius can be omitted, so if it's the case we set it
-				// to 7.0f
-				if (node != null)
-					radius = Float.parseFloat(node.getNodeValue());
-				else
-					radius = 7.0f;
-
-				// adds new hole
-				holes.add(new Hole(size, Float.parseFloat(ho.item(i)
-						.getAttributes().getNamedItem("x").getNodeValue()),
-						Float.parseFloat(ho.item(i).getAttributes()
-								.getNamedItem("y").getNodeValue()), radius,
-						false));
-			}
-
-			/* goal */
-			NodeList go = doc.getElementsByTagName("goal");
-
-			node = ho.item(0).getAttributes().getNamedItem("radius");
-			if (node != null)
-				radius = Float.parseFloat(node.getNodeValue());
-			else
-				radius = 7.0f;
+		this(gl, context, resId, null);
+	}
 
-			// adds goal
-			holes.add(new Hole(size, Float.parseFloat(go.item(0)
-					.getAttributes().getNamedItem("x").getNodeValue()), Float
-					.parseFloat(go.item(0).getAttributes().getNamedItem("y")
-							.getNodeValue()), radius, true));
+	/**
+	 * Constructs a new maze from a maze file, either an XML file or a
+	 * compiled one, taking its data from a cache if possible.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param context
+	 *            the context in which the resource is.
+	 * @param resId
+	 *            the resource ID of the file containing the maze data.
+	 * @param cache
+	 *            the cache of the parsed mazes, or <code>null</code> to always
+	 *            load the file.
+	 */
+	public Maze(GL10 gl, Context context, int resId, MazeCache cache) {
+		try {
+			build(cache != null ? cache.get(context, resId) : load(context,
+					resId));
 
 			// initializes physics engine
 			Physics.init(this);
@@ -178,6 +169,124 @@ public class Maze {
 		}
 	}
 
+	/**
+	 * Loads a maze file. A compiled maze stored uncompressed in the package is
+	 * memory mapped; any other compiled maze is read in a single buffer, and
+	 * an XML maze is parsed.
+	 * 
+	 * @param context
+	 *            the context in which the resource is.
+	 * @param resId
+	 *            the resource ID of the file containing the maze data.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws Exception
+	 *             if the file can't be read or parsed.
+	 */
+	public static MazeData load(Context context, int resId) throws Exception {
+		/* compiled and uncompressed */
+		AssetFileDescriptor afd = null;
+		try {
+			afd = context.getResources().openRawResourceFd(resId);
+		} catch (Resources.NotFoundException e) {
+			// the resource is compressed
+		}
+
+		if (afd != null) {
+			FileInputStream fis = afd.createInputStream();
+			try {
+				ByteBuffer magic = ByteBuffer.allocate(4);
+				fis.getChannel().read(magic, afd.getStartOffset());
+				magic.flip();
+
+				if (Binary.isMaze(magic))
+					return Binary.mapMaze(fis, afd.getStartOffset(),
+							afd.getLength());
+			} finally {
+				fis.close();
+				afd.close();
+			}
+		}
+
+		/* compiled or XML */
+		// opens the input stream of the maze file from the resource ID
+		InputStream is = new BufferedInputStream(context.getResources()
+				.openRawResource(resId));
+		try {
+			if (Binary.isMaze(is))
+				return Binary.readMaze(is);
+
+			// parses the document without validating it: the mazes are
+			// meant to be checked against the XML Schema beforehand, by
+			// running the MazeCompiler tool by hand
+			return Xml.parseMaze(is);
+		} finally {
+			// closes input stream
+			is.close();
+		}
+	}
+
+	/**
+	 * Constructs a new maze from already parsed data. This doesn't need an
+	 * OpenGL or Android context, and doesn't initialize the physics engine.
+	 * 
+	 * @param data
+	 *            the data of the maze.
+	 */
+	public Maze(MazeData data) {
+		build(data);
+	}
+
+	/**
+	 * Creates the ball, the walls and the holes of the maze, and the data
+	 * structures used by the collision checks.
+	 * 
+	 * @param data
+	 *            the data of the maze.
+	 */
+	private void build(MazeData data) {
+		size = data.getSize();
+
+		/* ball */
+		ball = new Ball(size);
+
+		/* start */
+		start = data.getStart();
+
+		/* walls */
+		float[] w = data.getWalls();
+		for (int i = 0; i < data.getWallsCount(); i++)
+			// adds new wall
+			walls.add(new Wall(w[i * 4], w[i * 4 + 1], w[i * 4 + 2],
+					w[i * 4 + 3]));
+		// all the walls are static and of the same color, so they're drawn
+		// together
+		wallBatch = new RectangleBatch(w, 0.0f, 0.0f, 0.0f, 1.0f);
+
+		/* holes and goal */
+		float[] h = data.getHoles();
+		for (int i = 0; i < data.getHolesCount(); i++)
+			// adds new hole
+			holes.add(new Hole(h[i * 3], h[i * 3 + 1], h[i * 3 + 2], data
+					.isGoal(i)));
+		// all the holes are static too, and take their colors along
+		float[] colors = new float[holes.size() * 4];
+		for (int i = 0; i < holes.size(); i++)
+			System.arraycopy(holes.get(i).getColor(), 0, colors, i * 4, 4);
+		holeBatch = new CircleBatch(h, colors);
+
+		/* collision data */
+		pack();
+
+		/* broadphase */
+		grid = new WallGrid(wallCenters, wallHalfSizes, ballRadius);
+		buildTree();
+
+		if (walls.size() + holes.size() > TREE_THRESHOLD)
+			broadphase = Broadphase.TREE;
+	}
+
 	/**
 	 * Checks if the ball is colliding with an hole of the maze and returns the
 	 * according application status.
@@ -195,29 +304,122 @@ public class Maze {
 	 * @see it.zavo.maze.util.Status
 	 */
 	public Status checkHolesCollision(float[] position) {
-		float[] center;
-		float radius;
-
-		// for every hole
-		for (Hole h : holes) {
-			center = h.getPosition();
-			radius = h.getRadius();
-
-			// if both the distances on the x and y axis are smaller than the
-			// radius
-			if (Math.abs(position[0] - center[0]) < radius
-					&& Math.abs(position[1] - center[1]) < radius) {
-				// if the hole is the goal
-				if (h.isGoal())
-					return Status.LEVEL_COMPLETE;
-				else
-					return Status.LEVEL_LOST;
+		if (broadphase == Broadphase.TREE) {
+			// tests only the holes whose box contains the ball
+			int found = tree.query(position[0], position[1]);
+			int[] result = tree.getResult();
+
+			for (int i = 0; i < found; i++)
+				if (result[i] >= wallsCount) {
+					Status s = checkHoleCollision(result[i] - wallsCount,
+							position);
+					if (s != Status.GAME_OK)
+						return s;
+				}
+		} else {
+			// for every hole
+			for (int h = 0; h < holesCount; h++) {
+				Status s = checkHoleCollision(h, position);
+				if (s != Status.GAME_OK)
+					return s;
 			}
 		}
 
 		return Status.GAME_OK;
 	}
 
+	/**
+	 * Checks if the ball is colliding with the given hole.
+	 * 
+	 * @param h
+	 *            the index of the hole to check.
+	 * @param position
+	 *            an array of two floats that contains the coordinates of the
+	 *            ball (x, y).
+	 * 
+	 * @return {@link it.zavo.maze.util.Status#GAME_OK GAME_OK} if no collision
+	 *         is found, {@link it.zavo.maze.util.Status#LEVEL_LOST LEVEL_LOST}
+	 *         if collided with a normal hole,
+	 *         {@link it.zavo.maze.util.Status#LEVEL_COMPLETE LEVEL_COMPLETE} if
+	 *         collided with the goal.
+	 */
+	private Status checkHoleCollision(int h, float[] position) {
+		float radius = holeRadii[h];
+
+		// if both the distances on the x and y axis are smaller than the
+		// radius
+		if (Math.abs(position[0] - holePositions[h * 2]) < radius
+				&& Math.abs(position[1] - holePositions[h * 2 + 1]) < radius) {
+			// if the hole is the goal
+			if (goals.get(h))
+				return Status.LEVEL_COMPLETE;
+			else
+				return Status.LEVEL_LOST;
+		}
+
+		return Status.GAME_OK;
+	}
+
+	/**
+	 * Copies the data needed by the collision checks from the walls and the
+	 * holes into contiguous arrays, so that the checks don't need to allocate
+	 * or to go through the objects.
+	 */
+	private void pack() {
+		ballRadius = ball.getRadius();
+
+		wallsCount = walls.size();
+		wallCenters = new float[wallsCount * 2];
+		wallHalfSizes = new float[wallsCount * 2];
+		for (int i = 0; i < wallsCount; i++) {
+			System.arraycopy(walls.get(i).getCenter(), 0, wallCenters,
+					i * 2, 2);
+			System.arraycopy(walls.get(i).getHalfSize(), 0, wallHalfSizes,
+					i * 2, 2);
+		}
+
+		holesCount = holes.size();
+		holePositions = new float[holesCount * 2];
+		holeRadii = new float[holesCount];
+		goals = new BitSet(holesCount);
+		for (int i = 0; i < holesCount; i++) {
+			System.arraycopy(holes.get(i).getPosition(), 0, holePositions,
+					i * 2, 2);
+			holeRadii[i] = holes.get(i).getRadius();
+			goals.set(i, holes.get(i).isGoal());
+		}
+	}
+
+	/**
+	 * Builds the bounding volume hierarchy of the walls and the holes. The
+	 * walls come first, enlarged by the radius of the ball, followed by the
+	 * holes.
+	 */
+	private void buildTree() {
+		float[] bounds = new float[(wallsCount + holesCount) * 4];
+		int b = 0;
+
+		for (int i = 0; i < wallsCount; i++) {
+			bounds[b++] = wallCenters[i * 2] - wallHalfSizes[i * 2]
+					- ballRadius;
+			bounds[b++] = wallCenters[i * 2 + 1] - wallHalfSizes[i * 2 + 1]
+					- ballRadius;
+			bounds[b++] = wallCenters[i * 2] + wallHalfSizes[i * 2]
+					+ ballRadius;
+			bounds[b++] = wallCenters[i * 2 + 1] + wallHalfSizes[i * 2 + 1]
+					+ ballRadius;
+		}
+
+		for (int i = 0; i < holesCount; i++) {
+			bounds[b++] = holePositions[i * 2] - holeRadii[i];
+			bounds[b++] = holePositions[i * 2 + 1] - holeRadii[i];
+			bounds[b++] = holePositions[i * 2] + holeRadii[i];
+			bounds[b++] = holePositions[i * 2 + 1] + holeRadii[i];
+		}
+
+		tree = new AabbTree(bounds);
+	}
+
 	/**
 	 * Checks if the ball is colliding with a wall of the maze.
 	 * 
@@ -239,84 +441,328 @@ public class Maze {
 	 */
 	public boolean checkWallsCollisions(float[] position, float[] speed,
 			float[] acceleration, final float bounceReduction) {
-		float[] center;
-		float[] halfSize;
-		float[] distance = new float[2];
-
 		boolean collision = false;
 
-		float ballRadius = ball.getRadius();
-
-		// for every wall
-		for (Wall w : walls) {
-			center = w.getCenter();
-			halfSize = w.getHalfSize();
-
-			// calculates the distance on the two axes from the central point of
-			// the wall
-			distance[0] = Math.abs(position[0] - center[0]);
-			distance[1] = Math.abs(position[1] - center[1]);
-
-			// if the distance from the border of the wall is greater on the x
-			// axis than on the y axis
-			if (distance[0] - halfSize[0] >= distance[1] - halfSize[1]) {
-				// if the ball penetrates the wall on the x axis
-				if (distance[0] < halfSize[0] + ballRadius) {
-					// if the ball is on the left of the center of the wall
-					if (position[0] <= center[0])
-						// flips the amount that penetrates on the other
-						// direction
-						position[0] = 2 * (center[0] - halfSize[0])
-								- position[0] - 2 * ballRadius;
-					// if the ball is on the right of the center of the wall
-					if (position[0] > center[0])
-						// overturns outside of the wall the amount that
-						// penetrates
-						position[0] = 2 * (center[0] + halfSize[0])
-								- position[0] + 2 * ballRadius;
-
-					// multiplies speed on the x axis for the bounce reduction
-					// constant and changes the sign
-					speed[0] = -(speed[0] * bounceReduction);
-					// resets acceleration
-					acceleration[0] = 0.0f;
+		if (broadphase == Broadphase.TREE) {
+			// tests only the walls whose enlarged box contains the ball
+			int found = tree.query(position[0], position[1]);
+			int[] result = tree.getResult();
 
+			for (int i = 0; i < found && result[i] < wallsCount; i++)
+				if (checkWallCollision(result[i], position, speed,
+						acceleration, bounceReduction))
 					collision = true;
-				}
-			}
+		} else if (broadphase == Broadphase.GRID) {
+			// tests only the walls near the cell of the ball
+			int cell = grid.getCell(position[0], position[1]);
+			int[] cellWalls = grid.getCellWalls();
 
-			// if the distance from the border of the wall is smaller on the x
-			// axis than on the y axis
-			if (distance[0] - halfSize[0] <= distance[1] - halfSize[1]) {
-				// if the ball penetrates the wall on the y axis
-				if (distance[1] < halfSize[1] + ballRadius) {
-					// if the ball is above the center of the wall
-					if (position[1] <= center[1])
-						// overturns outside of the wall the amount that
-						// penetrates
-						position[1] = 2 * (center[1] - halfSize[1])
-								- position[1] - 2 * ballRadius;
-					// if the ball is under the center of the wall
-					if (position[1] > center[1])
-						// overturns outside of the wall the amount that
-						// penetrates
-						position[1] = 2 * (center[1] + halfSize[1])
-								- position[1] + 2 * ballRadius;
-
-					// multiplies speed on the y axis for the bounce reduction
-					// constant and changes the sign
-					speed[1] = -(speed[1] * bounceReduction);
-					// resets acceleration
-					acceleration[1] = 0.0f;
+			int end = grid.getCellEnd(cell);
 
+			for (int i = grid.getCellStart(cell); i < end; i++)
+				if (checkWallCollision(cellWalls[i], position, speed,
+						acceleration, bounceReduction))
 					collision = true;
-				}
+		} else {
+			// for every wall
+			for (int w = 0; w < wallsCount; w++)
+				if (checkWallCollision(w, position, speed, acceleration,
+						bounceReduction))
+					collision = true;
+		}
+
+		return collision;
+	}
+
+	/**
+	 * Checks if the ball is colliding with the given wall and, if so, makes it
+	 * bounce.
+	 * 
+	 * @param w
+	 *            the index of the wall to check.
+	 * @param position
+	 *            an array of two floats that contains the coordinates of the
+	 *            ball (x, y).
+	 * @param speed
+	 *            the actual speed of the ball.
+	 * @param acceleration
+	 *            the actual acceleration of the ball.
+	 * @param bounceReduction
+	 *            a constant coefficient representing the speed reduction of the
+	 *            ball when it bounces against a wall.
+	 * 
+	 * @return <code>true</code> if a collision is detected, <code>false</code>
+	 *         otherwise.
+	 */
+	private boolean checkWallCollision(int w, float[] position, float[] speed,
+			float[] acceleration, final float bounceReduction) {
+		wallsTested++;
+
+		float centerX = wallCenters[w * 2];
+		float centerY = wallCenters[w * 2 + 1];
+		float halfWidth = wallHalfSizes[w * 2];
+		float halfHeight = wallHalfSizes[w * 2 + 1];
+
+		boolean collision = false;
+
+		// calculates the distance on the two axes from the central point of
+		// the wall
+		float distanceX = Math.abs(position[0] - centerX);
+		float distanceY = Math.abs(position[1] - centerY);
+
+		// if the distance from the border of the wall is greater on the x
+		// axis than on the y axis
+		if (distanceX - halfWidth >= distanceY - halfHeight) {
+			// if the ball penetrates the wall on the x axis
+			if (distanceX < halfWidth + ballRadius) {
+				// if the ball is on the left of the center of the wall
+				if (position[0] <= centerX)
+					// flips the amount that penetrates on the other
+					// direction
+					position[0] = 2 * (centerX - halfWidth) - position[0] - 2
+							* ballRadius;
+				// if the ball is on the right of the center of the wall
+				if (position[0] > centerX)
+					// overturns outside of the wall the amount that
+					// penetrates
+					position[0] = 2 * (centerX + halfWidth) - position[0] + 2
+							* ballRadius;
+
+				// multiplies speed on the x axis for the bounce reduction
+				// constant and changes the sign
+				speed[0] = -(speed[0] * bounceReduction);
+				// resets acceleration
+				acceleration[0] = 0.0f;
+
+				collision = true;
+			}
+		}
+
+		// if the distance from the border of the wall is smaller on the x
+		// axis than on the y axis
+		if (distanceX - halfWidth <= distanceY - halfHeight) {
+			// if the ball penetrates the wall on the y axis
+			if (distanceY < halfHeight + ballRadius) {
+				// if the ball is above the center of the wall
+				if (position[1] <= centerY)
+					// overturns outside of the wall the amount that
+					// penetrates
+					position[1] = 2 * (centerY - halfHeight) - position[1] - 2
+							* ballRadius;
+				// if the ball is under the center of the wall
+				if (position[1] > centerY)
+					// overturns outside of the wall the amount that
+					// penetrates
+					position[1] = 2 * (centerY + halfHeight) - position[1] + 2
+							* ballRadius;
+
+				// multiplies speed on the y axis for the bounce reduction
+				// constant and changes the sign
+				speed[1] = -(speed[1] * bounceReduction);
+				// resets acceleration
+				acceleration[1] = 0.0f;
+
+				collision = true;
+			}
+		}
+
+		return collision;
+	}
+
+	/**
+	 * Moves the ball along the segment from its previous to its new position
+	 * and makes it bounce against the first wall it meets, instead of only
+	 * checking where it ends up. This prevents the ball from passing through
+	 * thin walls when it moves fast or the frame is long.
+	 * 
+	 * @param from
+	 *            an array of two floats that contains the coordinates of the
+	 *            ball before the motion (x, y). It's modified to the last
+	 *            contact point.
+	 * @param position
+	 *            an array of two floats that contains the coordinates of the
+	 *            ball after the motion (x, y). It's modified to the position
+	 *            after the bounces.
+	 * @param speed
+	 *            the actual speed of the ball.
+	 * @param acceleration
+	 *            the actual acceleration of the ball.
+	 * @param bounceReduction
+	 *            a constant coefficient representing the speed reduction of the
+	 *            ball when it bounces against a wall.
+	 * 
+	 * @return <code>true</code> if a collision is detected, <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean sweepWallsCollisions(float[] from, float[] position,
+			float[] speed, float[] acceleration, final float bounceReduction) {
+		boolean collision = false;
+
+		for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+			float dx = position[0] - from[0];
+			float dy = position[1] - from[1];
+
+			if (dx == 0.0f && dy == 0.0f)
+				break;
+
+			// finds the earliest impact along the segment
+			hitTime = Float.MAX_VALUE;
+			hitAxis = -1;
+			sweepCandidates(from[0], from[1], dx, dy);
+
+			if (hitAxis < 0)
+				break;
+
+			// moves the ball to the contact point
+			from[0] += dx * hitTime;
+			from[1] += dy * hitTime;
+
+			// flips the rest of the motion on the axis of the impact
+			if (hitAxis == 0) {
+				from[0] -= Math.signum(dx) * SKIN;
+				position[0] = from[0] - dx * (1.0f - hitTime);
+				position[1] = from[1] + dy * (1.0f - hitTime);
+
+				// multiplies speed on the x axis for the bounce reduction
+				// constant and changes the sign
+				speed[0] = -(speed[0] * bounceReduction);
+				// resets acceleration
+				acceleration[0] = 0.0f;
+			} else {
+				from[1] -= Math.signum(dy) * SKIN;
+				position[0] = from[0] + dx * (1.0f - hitTime);
+				position[1] = from[1] - dy * (1.0f - hitTime);
+
+				// multiplies speed on the y axis for the bounce reduction
+				// constant and changes the sign
+				speed[1] = -(speed[1] * bounceReduction);
+				// resets acceleration
+				acceleration[1] = 0.0f;
 			}
+
+			collision = true;
 		}
 
 		return collision;
 	}
 
+	/**
+	 * Sweeps the ball against the walls that the broadphase finds near the
+	 * given segment.
+	 * 
+	 * @param x
+	 *            the x coordinate of the start of the segment.
+	 * @param y
+	 *            the y coordinate of the start of the segment.
+	 * @param dx
+	 *            the length of the segment on the x axis.
+	 * @param dy
+	 *            the length of the segment on the y axis.
+	 */
+	private void sweepCandidates(float x, float y, float dx, float dy) {
+		float minX = Math.min(x, x + dx);
+		float minY = Math.min(y, y + dy);
+		float maxX = Math.max(x, x + dx);
+		float maxY = Math.max(y, y + dy);
+
+		if (broadphase == Broadphase.TREE) {
+			// tests only the walls whose enlarged box overlaps the segment
+			int found = tree.query(minX, minY, maxX, maxY);
+			int[] result = tree.getResult();
+
+			for (int i = 0; i < found && result[i] < wallsCount; i++)
+				sweepWall(result[i], x, y, dx, dy);
+		} else if (broadphase == Broadphase.GRID) {
+			// tests only the walls of the cells crossed by the segment (a
+			// wall in more than one cell is tested more than once, which
+			// doesn't change the earliest impact)
+			int[] cellWalls = grid.getCellWalls();
+			int cells = grid.getCells();
+
+			for (int row = grid.getRow(minY); row <= grid.getRow(maxY); row++)
+				for (int column = grid.getColumn(minX); column <= grid
+						.getColumn(maxX); column++) {
+					int cell = row * cells + column;
+					int end = grid.getCellEnd(cell);
+
+					for (int i = grid.getCellStart(cell); i < end; i++)
+						sweepWall(cellWalls[i], x, y, dx, dy);
+				}
+		} else {
+			// for every wall
+			for (int w = 0; w < wallsCount; w++)
+				sweepWall(w, x, y, dx, dy);
+		}
+	}
+
+	/**
+	 * Computes the time of impact of the ball moving along the given segment
+	 * against the given wall, and records it if it's the earliest so far. As
+	 * in {@link #checkWallsCollisions(float[], float[], float[], float)
+	 * checkWallsCollisions}, the wall is enlarged by the radius of the ball,
+	 * so the ball can be treated as a point.
+	 * 
+	 * @param w
+	 *            the index of the wall.
+	 * @param x
+	 *            the x coordinate of the start of the segment.
+	 * @param y
+	 *            the y coordinate of the start of the segment.
+	 * @param dx
+	 *            the length of the segment on the x axis.
+	 * @param dy
+	 *            the length of the segment on the y axis.
+	 */
+	private void sweepWall(int w, float x, float y, float dx, float dy) {
+		wallsTested++;
+
+		float halfWidth = wallHalfSizes[w * 2] + ballRadius;
+		float halfHeight = wallHalfSizes[w * 2 + 1] + ballRadius;
+		float left = wallCenters[w * 2] - halfWidth;
+		float right = wallCenters[w * 2] + halfWidth;
+		float top = wallCenters[w * 2 + 1] - halfHeight;
+		float bottom = wallCenters[w * 2 + 1] + halfHeight;
+
+		float nearX, farX, nearY, farY;
+
+		// computes when the segment enters and leaves the x slab of the wall
+		if (dx == 0.0f) {
+			if (x <= left || x >= right)
+				return;
+			nearX = -Float.MAX_VALUE;
+			farX = Float.MAX_VALUE;
+		} else {
+			float t1 = (left - x) / dx;
+			float t2 = (right - x) / dx;
+			nearX = Math.min(t1, t2);
+			farX = Math.max(t1, t2);
+		}
+
+		// computes when the segment enters and leaves the y slab of the wall
+		if (dy == 0.0f) {
+			if (y <= top || y >= bottom)
+				return;
+			nearY = -Float.MAX_VALUE;
+			farY = Float.MAX_VALUE;
+		} else {
+			float t1 = (top - y) / dy;
+			float t2 = (bottom - y) / dy;
+			nearY = Math.min(t1, t2);
+			farY = Math.max(t1, t2);
+		}
+
+		// the segment is inside the wall between enter and leave; if it
+		// starts already inside, the penetration is left to
+		// checkWallsCollisions
+		float enter = Math.max(nearX, nearY);
+		float leave = Math.min(farX, farY);
+		if (enter >= leave || enter < 0.0f || enter > 1.0f || enter >= hitTime)
+			return;
+
+		hitTime = enter;
+		hitAxis = (nearX > nearY) ? 0 : 1;
+	}
+
 	/**
 	 * Draws the entire maze structure, with the ball at the specified
 	 * coordinates.
@@ -329,15 +775,43 @@ public class Maze {
 	 *            the y coordinate of the ball.
 	 */
 	public void draw(GL10 gl, float ballX, float ballY) {
-		// for every wall
-		for (Wall w : walls)
-			w.draw(gl);
+		drawStatic(gl);
+		drawBall(gl, ballX, ballY);
+	}
 
-		// for every hole
-		for (Hole h : holes)
-			h.draw(gl);
+	/**
+	 * Draws the walls and the holes, which don't change during the level.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	public void drawStatic(GL10 gl) {
+		if (batching) {
+			// draws all the walls at once, then all the holes
+			wallBatch.draw(gl);
+			holeBatch.draw(gl);
+		} else {
+			// for every wall
+			for (Wall w : walls)
+				w.draw(gl);
+
+			// for every hole
+			for (Hole h : holes)
+				h.draw(gl);
+		}
+	}
 
-		// draws the ball
+	/**
+	 * Draws the ball at the specified coordinates.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 * @param ballX
+	 *            the x coordinate of the ball.
+	 * @param ballY
+	 *            the y coordinate of the ball.
+	 */
+	public void drawBall(GL10 gl, float ballX, float ballY) {
 		ball.draw(gl, Tex.BALL, ballX, ballY);
 	}
 
@@ -359,6 +833,26 @@ public class Maze {
 		return ball.getSpeed();
 	}
 
+	/**
+	 * Returns the batch of all the walls, e.g. to upload them to the buffers
+	 * of a renderer.
+	 * 
+	 * @return the batch of the walls.
+	 */
+	public RectangleBatch getWallBatch() {
+		return wallBatch;
+	}
+
+	/**
+	 * Returns the batch of all the holes, e.g. to upload them to the buffers
+	 * of a renderer.
+	 * 
+	 * @return the batch of the holes.
+	 */
+	public CircleBatch getHoleBatch() {
+		return holeBatch;
+	}
+
 	/**
 	 * Return the starting coordinates of the ball in this maze.
 	 * 
@@ -368,4 +862,92 @@ public class Maze {
 	public float[] getStart() {
 		return start.clone();
 	}
+
+	/**
+	 * Returns the strategy used to select the walls to be tested for
+	 * collisions.
+	 * 
+	 * @return the broadphase strategy.
+	 * 
+	 * @see it.zavo.maze.util.Broadphase
+	 */
+	public Broadphase getBroadphase() {
+		return broadphase;
+	}
+
+	/**
+	 * Sets the strategy used to select the walls to be tested for collisions.
+	 * {@link it.zavo.maze.util.Broadphase#BRUTE_FORCE BRUTE_FORCE} gives the
+	 * reference results to compare the other strategies with.
+	 * 
+	 * @param broadphase
+	 *            the broadphase strategy.
+	 * 
+	 * @see it.zavo.maze.util.Broadphase
+	 */
+	public void setBroadphase(Broadphase broadphase) {
+		this.broadphase = broadphase;
+	}
+
+	/**
+	 * Tells if the walls and the holes are drawn in batches.
+	 * 
+	 * @return <code>true</code> if the walls and the holes are batched,
+	 *         <code>false</code> if they are drawn one by one.
+	 */
+	public boolean isBatching() {
+		return batching;
+	}
+
+	/**
+	 * Sets whether the walls and the holes are drawn in batches, or one by one
+	 * as a reference. The default is to batch them.
+	 * 
+	 * @param batching
+	 *            <code>true</code> to batch the walls and the holes.
+	 */
+	public void setBatching(boolean batching) {
+		this.batching = batching;
+	}
+
+	/**
+	 * Deletes the OpenGL buffers of the maze. It can still be drawn, and
+	 * uploads them again.
+	 * 
+	 * @param gl
+	 *            the GL object.
+	 */
+	public void release(GL10 gl) {
+		wallBatch.release(gl);
+		holeBatch.release(gl);
+	}
+
+	/**
+	 * Forgets the OpenGL buffers of the maze after the loss of the OpenGL
+	 * context, so that they're uploaded again on the next draw.
+	 */
+	public void invalidate() {
+		wallBatch.invalidate();
+		holeBatch.invalidate();
+	}
+
+	/**
+	 * Returns the report of the bounding volume hierarchy built for this maze:
+	 * depth, leaf occupancy and build time.
+	 * 
+	 * @return a single-line, human readable report.
+	 */
+	public String getTreeStatistics() {
+		return tree.getStatistics();
+	}
+
+	/**
+	 * Returns the number of walls tested for collisions, by both the checks
+	 * and the sweeps, since the maze was built.
+	 * 
+	 * @return the number of walls tested.
+	 */
+	public long getWallsTested() {
+		return wallsTested;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.content.Context;
+
+/**
+ * A bounded cache of the parsed mazes, keyed by resource ID. When the
+ * estimated size of the cached mazes exceeds the limit, the least recently
+ * used ones are evicted.
+ * <p>
+ * The cache can be shared between threads.
+ * 
+ * @author Maze-Android contributors
+ */
+public class MazeCache {
+	/**
+	 * the default limit of the cache, in bytes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+	// in access order, so the first entry is the least recently used
+	private LinkedHashMap<Integer, MazeData> mazes = new LinkedHashMap<Integer, MazeData>(
+			16, 0.75f, true);
+	private int maxSize;
+	private int size = 0;
+
+	private int hits = 0;
+	private int misses = 0;
+	private int evictions = 0;
+
+	/**
+	 * Constructs an empty cache.
+	 * 
+	 * @param maxSize
+	 *            the limit of the estimated size of the cached mazes, in
+	 *            bytes.
+	 */
+	public MazeCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns a maze, loading it if it's not cached.
+	 * 
+	 * @param context
+	 *            the context in which the resource is.
+	 * @param resId
+	 *            the resource ID of the file containing the maze data.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws Exception
+	 *             if the file can't be read or parsed.
+	 */
+	public MazeData get(Context context, int resId) throws Exception {
+		MazeData data = get(resId);
+
+		if (data == null) {
+			// loads outside the lock, so other threads aren't blocked
+			data = Maze.load(context, resId);
+			put(resId, data);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Returns a cached maze, counting a hit or a miss.
+	 * 
+	 * @param resId
+	 *            the resource ID of the maze.
+	 * 
+	 * @return the data of the maze, or <code>null</code> if it's not cached.
+	 */
+	public synchronized MazeData get(int resId) {
+		MazeData data = mazes.get(resId);
+
+		if (data != null)
+			hits++;
+		else
+			misses++;
+
+		return data;
+	}
+
+	/**
+	 * Tells if a maze is cached, without counting a hit or a miss and without
+	 * changing the eviction order.
+	 * 
+	 * @param resId
+	 *            the resource ID of the maze.
+	 * 
+	 * @return <code>true</code> if the maze is cached, <code>false</code>
+	 *         otherwise.
+	 */
+	public synchronized boolean contains(int resId) {
+		return mazes.containsKey(resId);
+	}
+
+	/**
+	 * Adds a maze to the cache, evicting the least recently used mazes as
+	 * needed. A maze larger than the whole cache is not added.
+	 * 
+	 * @param resId
+	 *            the resource ID of the maze.
+	 * @param data
+	 *            the data of the maze.
+	 */
+	public synchronized void put(int resId, MazeData data) {
+		int dataSize = data.getFootprint();
+		if (dataSize > maxSize)
+			return;
+
+		MazeData previous = mazes.put(resId, data);
+		if (previous != null)
+			size -= previous.getFootprint();
+		size += dataSize;
+
+		Iterator<Map.Entry<Integer, MazeData>> i = mazes.entrySet()
+				.iterator();
+		while (size > maxSize && i.hasNext()) {
+			Map.Entry<Integer, MazeData> eldest = i.next();
+			if (eldest.getValue() == data)
+				continue;
+
+			size -= eldest.getValue().getFootprint();
+			i.remove();
+			evictions++;
+		}
+	}
+
+	/** Removes all the mazes from the cache. The counters are kept. */
+	public synchronized void clear() {
+		mazes.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of cached mazes.
+	 * 
+	 * @return the number of mazes.
+	 */
+	public synchronized int getCount() {
+		return mazes.size();
+	}
+
+	/**
+	 * Returns the estimated size of the cached mazes.
+	 * 
+	 * @return the size in bytes.
+	 */
+	public synchronized int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the limit of the size of the cached mazes.
+	 * 
+	 * @return the size in bytes.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of requests that found the maze in the cache.
+	 * 
+	 * @return the number of hits.
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of requests that didn't find the maze in the cache.
+	 * 
+	 * @return the number of misses.
+	 */
+	public synchronized int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of mazes removed to make room for others.
+	 * 
+	 * @return the number of evictions.
+	 */
+	public synchronized int getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns a summary of the cache, for logging.
+	 * 
+	 * @return a single line with the counters and the size.
+	 */
+	public synchronized String getStatistics() {
+		return "mazes=" + mazes.size() + " size=" + size + "/" + maxSize
+				+ " hits=" + hits + " misses=" + misses + " evictions="
+				+ evictions;
+	}
+}
\ No newline at end of file
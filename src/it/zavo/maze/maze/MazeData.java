@@ -0,0 +1,172 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+import java.util.BitSet;
+
+/**
+ * The parsed content of a maze file, independent of OpenGL and of the Android
+ * context. All the coordinates are already mapped to the (-1, 1) space.
+ * <p>
+ * The arrays are not copied and must not be modified.
+ * 
+ * @author Maze-Android contributors
+ */
+public class MazeData {
+	private String name;
+	private int time;
+	private float size;
+
+	private float[] start;
+	private float[] walls;
+	private float[] holes;
+	private BitSet goals;
+
+	/**
+	 * Constructs the data of a maze.
+	 * 
+	 * @param name
+	 *            the name of the maze.
+	 * @param time
+	 *            the time limit of the maze, in seconds.
+	 * @param size
+	 *            the size of the maze, in maze units.
+	 * @param start
+	 *            the starting point of the ball (x, y).
+	 * @param walls
+	 *            four floats per wall: left, right, top and bottom sides.
+	 * @param holes
+	 *            three floats per hole: x, y and radius. The goal is an hole
+	 *            too.
+	 * @param goals
+	 *            one bit per hole, set if the hole is a goal.
+	 */
+	public MazeData(String name, int time, float size, float[] start,
+			float[] walls, float[] holes, BitSet goals) {
+		this.name = name;
+		this.time = time;
+		this.size = size;
+		this.start = start;
+		this.walls = walls;
+		this.holes = holes;
+		this.goals = goals;
+	}
+
+	/**
+	 * Returns the name of the maze.
+	 * 
+	 * @return the name of the maze.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the time limit of the maze.
+	 * 
+	 * @return the time limit in seconds.
+	 */
+	public int getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the size of the maze, before the mapping to the (-1, 1) space.
+	 * 
+	 * @return the size of the maze, in maze units.
+	 */
+	public float getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the starting coordinates of the ball.
+	 * 
+	 * @return an array of two floats (x, y).
+	 */
+	public float[] getStart() {
+		return start.clone();
+	}
+
+	/**
+	 * Returns the number of walls.
+	 * 
+	 * @return the number of walls.
+	 */
+	public int getWallsCount() {
+		return walls.length / 4;
+	}
+
+	/**
+	 * Returns the walls.
+	 * 
+	 * @return an array of four floats per wall: left, right, top and bottom
+	 *         sides.
+	 */
+	public float[] getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Returns the number of holes, goal included.
+	 * 
+	 * @return the number of holes.
+	 */
+	public int getHolesCount() {
+		return holes.length / 3;
+	}
+
+	/**
+	 * Returns the holes, goal included.
+	 * 
+	 * @return an array of three floats per hole: x, y and radius.
+	 */
+	public float[] getHoles() {
+		return holes;
+	}
+
+	/**
+	 * Returns an estimate of the memory used by the maze data: the arrays, the
+	 * name and the objects holding them.
+	 * 
+	 * @return the size in bytes.
+	 */
+	public int getFootprint() {
+		return 4 * (start.length + walls.length + holes.length)
+				+ goals.size() / 8 + 2 * (name != null ? name.length() : 0)
+				+ 128;
+	}
+
+	/**
+	 * Tells if an hole is a goal.
+	 * 
+	 * @param hole
+	 *            the index of the hole.
+	 * 
+	 * @return <code>true</code> if the hole is a goal, <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean isGoal(int hole) {
+		return goals.get(hole);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.Context;
+
+/**
+ * Chooses the next maze randomly from the {@link LevelIndex} and builds it on a background thread, while
+ * the current one is played, so that the render thread only has to take it
+ * when the level changes.
+ * <p>
+ * {@link #preload()} and {@link #take()} must be called by the same thread.
+ * 
+ * @author Maze-Android contributors
+ */
+public class MazePreloader {
+	private Context context;
+	private MazeCache cache;
+	private Random random = new Random();
+
+	private ExecutorService executor;
+
+	// the maze being built, and the one being played
+	private Future<Maze> next = null;
+	private int nextResId;
+	private Maze current = null;
+	private int currentResId;
+
+	/**
+	 * Constructs a new preloader.
+	 * 
+	 * @param context
+	 *            the context in which the resources are.
+	 * @param cache
+	 *            the cache of the parsed mazes.
+	 */
+	public MazePreloader(Context context, MazeCache cache) {
+		this.context = context;
+		this.cache = cache;
+
+		// a single low priority thread, which doesn't keep the process alive
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "MazePreloader");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Chooses the next maze and starts building it in background. Does
+	 * nothing if a maze is already being built.
+	 */
+	public void preload() {
+		if (next != null)
+			return;
+
+		nextResId = LevelIndex.get(random.nextInt(LevelIndex.getCount()))
+				.getResId();
+
+		final int resId = nextResId;
+		final Maze replay = resId == currentResId ? current : null;
+		next = executor.submit(new Callable<Maze>() {
+			@Override
+			public Maze call() throws Exception {
+				// the same maze is played again, so it's just reset
+				if (replay != null)
+					return replay;
+
+				return new Maze(cache.get(context, resId));
+			}
+		});
+	}
+
+	/**
+	 * Returns the next maze, waiting for it to be built if needed, and
+	 * starts preloading the following one. If the next maze can't be built,
+	 * the current one is returned.
+	 * 
+	 * @return the next maze.
+	 * 
+	 * @throws IllegalStateException
+	 *             if no maze could be built at all, i.e. the first one
+	 *             failed.
+	 */
+	public Maze take() {
+		preload();
+
+		Throwable failure = null;
+		try {
+			current = next.get();
+			currentResId = nextResId;
+		} catch (ExecutionException e) {
+			failure = e.getCause();
+			failure.printStackTrace();
+		} catch (InterruptedException e) {
+			failure = e;
+			// keeps the interruption for the caller
+			Thread.currentThread().interrupt();
+		}
+
+		next = null;
+		preload();
+
+		if (current == null) {
+			IllegalStateException e = new IllegalStateException(
+					"No maze could be built");
+			e.initCause(failure);
+			throw e;
+		}
+
+		return current;
+	}
+
+	/** Stops the background thread. The preloader can't be used anymore. */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
\ No newline at end of file
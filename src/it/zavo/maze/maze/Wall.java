@@ -51,9 +51,25 @@ public class Wall extends Rectangle {
 	 */
 	public Wall(float scale, float left, float right, float top, float bottom) {
 		// size is mapped to (-1, 1), so everything is multiplied by 2
-		super(((left * 2) / scale) - 1, ((right * 2) / scale) - 1,
-				((top * 2) / scale) - 1, ((bottom * 2) / scale) - 1, 0.0f,
-				0.0f, 0.0f, 1.0f);
+		this(((left * 2) / scale) - 1, ((right * 2) / scale) - 1,
+				((top * 2) / scale) - 1, ((bottom * 2) / scale) - 1);
+	}
+
+	/**
+	 * Constructs a wall of the default color at the given coordinates, already
+	 * mapped to the (-1, 1) space.
+	 * 
+	 * @param left
+	 *            x coordinate of the left side.
+	 * @param right
+	 *            x coordinate of the right side.
+	 * @param top
+	 *            y coordinate of the top side.
+	 * @param bottom
+	 *            y coordinate of the bottom side.
+	 */
+	public Wall(float left, float right, float top, float bottom) {
+		super(left, right, top, bottom, 0.0f, 0.0f, 0.0f, 1.0f);
 
 		// gets values from the vertices to calculate the half width and height
 		halfSize = new float[] { (vertices[6] - vertices[0]) / 2,
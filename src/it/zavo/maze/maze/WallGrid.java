@@ -0,0 +1,216 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.maze;
+
+/**
+ * Uniform grid dividing the (-1, 1) space of the maze in square cells. Every
+ * cell stores the indices of the walls that can collide with a ball whose
+ * center lies inside the cell, so only those walls need to be tested.
+ * <p>
+ * The grid is static: it is built once when the maze is loaded and never
+ * changes during the level.
+ * 
+ * @author Maze-Android contributors
+ */
+public class WallGrid {
+	/**
+	 * the maximum number of cells on each side of the grid.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int MAX_CELLS = 64;
+
+	private int cells;
+	private float cellSize;
+
+	/*
+	 * the walls of the cell c are stored in cellWalls, from index cellStart[c]
+	 * (included) to index cellStart[c + 1] (excluded).
+	 */
+	private int[] cellStart;
+	private int[] cellWalls;
+
+	/**
+	 * Constructs the grid for the given walls.
+	 * 
+	 * @param centers
+	 *            the centers of the walls, two floats (x, y) per wall.
+	 * @param halfSizes
+	 *            the half sizes of the walls, two floats (half width, half
+	 *            height) per wall.
+	 * @param ballRadius
+	 *            the radius of the ball. Every wall is inserted in all the
+	 *            cells its rectangle touches once enlarged by the radius.
+	 */
+	public WallGrid(float[] centers, float[] halfSizes, float ballRadius) {
+		int walls = centers.length / 2;
+
+		// about one wall per cell
+		cells = (int) Math.ceil(Math.sqrt(walls));
+		if (cells < 1)
+			cells = 1;
+		else if (cells > MAX_CELLS)
+			cells = MAX_CELLS;
+
+		// the (-1, 1) space is 2 units wide
+		cellSize = 2.0f / cells;
+
+		int[] bounds = new int[walls * 4];
+		cellStart = new int[cells * cells + 1];
+
+		// first pass: computes the cells touched by every wall and counts the
+		// walls of every cell
+		for (int i = 0; i < walls; i++) {
+			bounds[i * 4] = cell(centers[i * 2] - halfSizes[i * 2]
+					- ballRadius);
+			bounds[i * 4 + 1] = cell(centers[i * 2] + halfSizes[i * 2]
+					+ ballRadius);
+			bounds[i * 4 + 2] = cell(centers[i * 2 + 1] - halfSizes[i * 2 + 1]
+					- ballRadius);
+			bounds[i * 4 + 3] = cell(centers[i * 2 + 1] + halfSizes[i * 2 + 1]
+					+ ballRadius);
+
+			for (int y = bounds[i * 4 + 2]; y <= bounds[i * 4 + 3]; y++)
+				for (int x = bounds[i * 4]; x <= bounds[i * 4 + 1]; x++)
+					cellStart[y * cells + x + 1]++;
+		}
+
+		// turns the counts into start offsets
+		for (int c = 0; c < cells * cells; c++)
+			cellStart[c + 1] += cellStart[c];
+
+		// second pass: fills the cells, keeping the walls in the same order
+		// as in the maze
+		cellWalls = new int[cellStart[cells * cells]];
+		int[] fill = new int[cells * cells];
+		for (int i = 0; i < walls; i++)
+			for (int y = bounds[i * 4 + 2]; y <= bounds[i * 4 + 3]; y++)
+				for (int x = bounds[i * 4]; x <= bounds[i * 4 + 1]; x++) {
+					int c = y * cells + x;
+					cellWalls[cellStart[c] + fill[c]++] = i;
+				}
+	}
+
+	/**
+	 * Returns the index of the row or column containing the given coordinate,
+	 * clamped to the grid.
+	 * 
+	 * @param coordinate
+	 *            the x or y coordinate in the (-1, 1) space.
+	 * 
+	 * @return the index of the row or column.
+	 */
+	private int cell(float coordinate) {
+		int c = (int) ((coordinate + 1.0f) / cellSize);
+
+		if (c < 0)
+			return 0;
+		if (c >= cells)
+			return cells - 1;
+		return c;
+	}
+
+	/**
+	 * Returns the index of the cell containing the given point.
+	 * 
+	 * @param x
+	 *            the x coordinate of the point.
+	 * @param y
+	 *            the y coordinate of the point.
+	 * 
+	 * @return the index of the cell, to be used with
+	 *         {@link #getCellStart(int)} and {@link #getCellEnd(int)}.
+	 */
+	public int getCell(float x, float y) {
+		return cell(y) * cells + cell(x);
+	}
+
+	/**
+	 * Returns the index of the column containing the given x coordinate.
+	 * 
+	 * @param x
+	 *            the x coordinate.
+	 * 
+	 * @return the index of the column, clamped to the grid.
+	 */
+	public int getColumn(float x) {
+		return cell(x);
+	}
+
+	/**
+	 * Returns the index of the row containing the given y coordinate.
+	 * 
+	 * @param y
+	 *            the y coordinate.
+	 * 
+	 * @return the index of the row, clamped to the grid.
+	 */
+	public int getRow(float y) {
+		return cell(y);
+	}
+
+	/**
+	 * Returns the first position of the walls of a cell in the
+	 * {@link #getCellWalls() cell walls} array.
+	 * 
+	 * @param cell
+	 *            the index of the cell.
+	 * 
+	 * @return the first position (included).
+	 */
+	public int getCellStart(int cell) {
+		return cellStart[cell];
+	}
+
+	/**
+	 * Returns the last position of the walls of a cell in the
+	 * {@link #getCellWalls() cell walls} array.
+	 * 
+	 * @param cell
+	 *            the index of the cell.
+	 * 
+	 * @return the last position (excluded).
+	 */
+	public int getCellEnd(int cell) {
+		return cellStart[cell + 1];
+	}
+
+	/**
+	 * Returns the array containing the wall indices of all the cells. The
+	 * array is not copied and must not be modified.
+	 * 
+	 * @return the wall indices, grouped by cell.
+	 */
+	public int[] getCellWalls() {
+		return cellWalls;
+	}
+
+	/**
+	 * Returns the number of cells on each side of the grid.
+	 * 
+	 * @return the number of cells on each side.
+	 */
+	public int getCells() {
+		return cells;
+	}
+}
\ No newline at end of file
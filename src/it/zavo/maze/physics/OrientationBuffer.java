@@ -0,0 +1,118 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.physics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the orientation samples over from the sensor thread to the thread of
+ * the simulation, without locks and without allocations. Only one thread may
+ * {@link #publish(float[], long) publish} and only one thread may
+ * {@link #update() update}.
+ * <p>
+ * The samples are kept in three slots: one is written by the producer, one is
+ * read by the consumer, and the third holds the latest published sample. The
+ * producer and the consumer swap their slot with the third one atomically, so
+ * neither ever waits for the other, and the consumer always sees the three
+ * values and the timestamp of a single sample.
+ * 
+ * @author Maze-Android contributors
+ */
+public class OrientationBuffer {
+	/**
+	 * the flag set on the shared slot when it holds a sample not yet taken by
+	 * the consumer.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int FRESH = 4;
+
+	/**
+	 * the mask of the index of the shared slot.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int INDEX = 3;
+
+	// three floats (azimuth, pitch, roll) and a timestamp per slot
+	private final float[] values = new float[9];
+	private final long[] timestamps = new long[3];
+
+	// the index of the shared slot, with the FRESH flag
+	private final AtomicInteger shared = new AtomicInteger(1);
+	// the slot of the producer
+	private int back = 0;
+	// the slot of the consumer
+	private int front = 2;
+
+	/**
+	 * Publishes a new sample, replacing the previous one if it hasn't been
+	 * taken yet. This must only be called by the producer thread.
+	 * 
+	 * @param orientation
+	 *            an array of three floats containing azimuth, pitch and roll.
+	 * @param timestamp
+	 *            the time of the sample.
+	 */
+	public void publish(final float[] orientation, final long timestamp) {
+		values[back * 3] = orientation[0];
+		values[back * 3 + 1] = orientation[1];
+		values[back * 3 + 2] = orientation[2];
+		timestamps[back] = timestamp;
+
+		back = shared.getAndSet(back | FRESH) & INDEX;
+	}
+
+	/**
+	 * Takes the latest published sample, if there's one newer than the
+	 * current. This must only be called by the consumer thread.
+	 * 
+	 * @return <code>true</code> if the current sample changed,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean update() {
+		if ((shared.get() & FRESH) == 0)
+			return false;
+
+		front = shared.getAndSet(front) & INDEX;
+		return true;
+	}
+
+	/**
+	 * Copies the current sample. This must only be called by the consumer
+	 * thread.
+	 * 
+	 * @param orientation
+	 *            an array of three floats where azimuth, pitch and roll are
+	 *            copied.
+	 * 
+	 * @return the time of the sample, or 0 if none was taken yet.
+	 */
+	public long get(final float[] orientation) {
+		orientation[0] = values[front * 3];
+		orientation[1] = values[front * 3 + 1];
+		orientation[2] = values[front * 3 + 2];
+
+		return timestamps[front];
+	}
+}
\ No newline at end of file
@@ -31,185 +31,16 @@ import javax.microedition.khronos.opengles.GL10;
 import android.os.SystemClock;
 
 /**
- * Static class implementing the physics engine.
+ * Static class implementing the physics engine of the game. It drives a
+ * default {@link PhysicsWorld} with the system clock and reports its status to
+ * the {@link it.zavo.maze.MazeActivity MazeActivity}.
  * 
  * @author Marco Mandrioli
+ * 
+ * @see PhysicsWorld
  */
 public class Physics {
-	/**
-	 * the threshold under which sensor values are ignored.
-	 * <p>
-	 * Constant value: {@value}
-	 */
-	private static final float threshold = 0.01f;
-
-	/**
-	 * the coefficient of reduction of the speed after a bounce against a wall.
-	 * <p>
-	 * Constant value: {@value}
-	 */
-	private static final float bounceReduction = 0.53f;
-
-	private static float ballSpeed;
-	private static float ballRadius;
-
-	private static long time = 0;
-	private static long timeOld = 0;
-	private static long timeElapsed = 0;
-
-	private static float[] orientation = new float[3];
-	private static float[] position = { 0.0f, 0.0f };
-	private static float[] speed = { 0.0f, 0.0f };
-	private static float[] acceleration = { 0.0f, 0.0f };
-
-	/**
-	 * Checks if the ball is colliding with a border of the board.
-	 * 
-	 * @return <code>true</code> if a collision is detected, <code>false</code>
-	 *         otherwise.
-	 */
-	private static boolean checkBorders() {
-		boolean collision = false;
-
-		// if the ball goes out of the left side
-		if (position[0] < ballRadius - 1.0f) {
-			// flips the amount that passed the border on the other direction
-			position[0] = 2 * ballRadius - position[0] - 2.0f;
-
-			// multiplies speed on the x axis for the bounce reduction constant
-			// and changes the sign
-			speed[0] = -(speed[0] * bounceReduction);
-			// resets acceleration
-			acceleration[0] = 0.0f;
-
-			collision = true;
-		}
-		// if the ball goes out of the right side
-		else if (position[0] > 1.0f - ballRadius) {
-			// flips the amount that passed the border on the other direction
-			position[0] = 2 * (1.0f - ballRadius) - position[0];
-
-			// multiplies speed on the x axis for the bounce reduction constant
-			// and changes the sign
-			speed[0] = -(speed[0] * bounceReduction);
-			// resets acceleration
-			acceleration[0] = 0.0f;
-
-			collision = true;
-		}
-
-		// if the ball goes out of the top side
-		if (position[1] < ballRadius - 1) {
-			// flips the amount that passed the border on the other direction
-			position[1] = 2 * ballRadius - position[1] - 2;
-
-			// multiplies speed on the x axis for the bounce reduction constant
-			// and changes the sign
-			speed[1] = -(speed[1] * bounceReduction);
-			// resets acceleration
-			acceleration[1] = 0.0f;
-
-			collision = true;
-		}
-		// if the ball goes out of the bottom side
-		else if (position[1] > 1.0f - ballRadius) {
-			// flips the amount that passed the border on the other direction
-			position[1] = 2 * (1.0f - ballRadius) - position[1];
-
-			// multiplies speed on the x axis for the bounce reduction constant
-			// and changes the sign
-			speed[1] = -(speed[1] * bounceReduction);
-			// resets acceleration
-			acceleration[1] = 0.0f;
-
-			collision = true;
-		}
-
-		return collision;
-	}
-
-	/**
-	 * Checks if the ball is colliding with walls, holes and borders.
-	 * 
-	 * @param maze
-	 *            the maze to check for collisions.
-	 * 
-	 * @return the new status of the application.
-	 */
-	private static Status checkCollisions(final Maze maze) {
-		// checks for collisions with the borders
-		checkBorders();
-
-		// checks for collisions with the walls
-		maze.checkWallsCollisions(position, speed, acceleration,
-				bounceReduction);
-		
-		// checks for collisions with the holes
-		return maze.checkHolesCollision(position);
-	}
-
-	/**
-	 * Computes the new acceleration of the ball using the data from the
-	 * sensors.
-	 */
-	private static void computeAcceleration() {
-		// acceleration = values * -1
-
-		// checks for the threshold
-		if (Math.abs(orientation[1]) > threshold)
-			acceleration[0] = -(float) (Math.sin(orientation[1])
-					* Math.cos(orientation[1]) * ballSpeed);
-		else
-			acceleration[0] = 0.0f;
-
-		// checks for the threshold
-		if (Math.abs(orientation[2]) > threshold)
-			acceleration[1] = -(float) (Math.sin(orientation[2])
-					* Math.cos(orientation[2]) * ballSpeed);
-		else
-			acceleration[1] = 0.0f;
-	}
-
-	/** Computes the new speed based on the acceleration and the time. */
-	private static void computeSpeed() {
-		// computes acceleration
-		computeAcceleration();
-
-		// updates time difference
-		timeOld = time;
-		time = SystemClock.uptimeMillis();
-		timeElapsed = time - timeOld;
-
-		// computes speed
-		speed[0] += acceleration[0] * timeElapsed;
-		speed[1] += acceleration[1] * timeElapsed;
-	}
-
-	/**
-	 * Computes the new position of the ball in the given maze.
-	 * 
-	 * @param maze
-	 *            the maze to process.
-	 * 
-	 * @return the new status of the application.
-	 */
-	private static Status computePosition(final Maze maze) {
-		// computes speed
-		computeSpeed();
-
-		// correct formulae, but worse result
-		// position[0] = position[0] + speed[0] * timeElapsed;
-		// position[1] = position[1] + speed[1] * timeElapsed;
-
-		// wrong formulae, but better result
-		position[0] = position[0] + speed[0] * timeElapsed + 0.5f
-				* acceleration[0] * timeElapsed * timeElapsed;
-		position[1] = position[1] + speed[1] * timeElapsed + 0.5f
-				* acceleration[1] * timeElapsed * timeElapsed;
-
-		// checks collisions
-		return checkCollisions(maze);
-	}
+	private static PhysicsWorld world = new PhysicsWorld();
 
 	/**
 	 * Updates the status of the physics engine. Computes the new position of
@@ -221,11 +52,12 @@ public class Physics {
 	 *            the maze to process.
 	 * 
 	 * @return an array of two floats containing the new coordinates (x, y) of
-	 *         the ball.
+	 *         the ball. The same array is returned on every call, so it's
+	 *         only valid until the next update.
 	 */
 	public static float[] update(GL10 gl, final Maze maze) {
 		// computes position
-		Status s = computePosition(maze);
+		Status s = world.update(maze, SystemClock.uptimeMillis());
 
 		// updates the status of the application
 		if (s == Status.LEVEL_COMPLETE)
@@ -235,7 +67,7 @@ public class Physics {
 		else
 			MazeActivity.setGameOk();
 
-		return position.clone();
+		return world.getPosition();
 	}
 
 	/**
@@ -245,20 +77,7 @@ public class Physics {
 	 *            the maze to initialize the physical engine onto.
 	 */
 	public static void init(final Maze maze) {
-		ballSpeed = maze.getBallSpeed();
-		ballRadius = maze.getBallRadius();
-
-		time = SystemClock.uptimeMillis();
-		timeOld = time;
-		timeElapsed = 0;
-		
-		acceleration[0] = 0;
-		acceleration[1] = 0;
-
-		speed[0] = 0;
-		speed[1] = 0;
-
-		position = maze.getStart();
+		world.init(maze, SystemClock.uptimeMillis());
 	}
 
 	/**
@@ -270,8 +89,70 @@ public class Physics {
 	 *            sensors.
 	 */
 	public static void updateOrientation(final float[] values) {
-		orientation[0] = values[0];
-		orientation[1] = values[1];
-		orientation[2] = values[2];
+		world.updateOrientation(values);
+	}
+
+	/**
+	 * Updates the orientation using the values from the sensors. Call this
+	 * method from the sensor thread when the sensors detected a change; the
+	 * next update takes the whole sample without locking.
+	 * 
+	 * @param values
+	 *            an array of three floats containing the new data from the
+	 *            sensors.
+	 * @param timestamp
+	 *            the time of the sensor event, in nanoseconds.
+	 * 
+	 * @see PhysicsWorld#updateOrientation(float[], long)
+	 */
+	public static void updateOrientation(final float[] values,
+			final long timestamp) {
+		world.updateOrientation(values, timestamp);
+	}
+
+	/**
+	 * Sets the duration of a simulation step.
+	 * 
+	 * @param stepMillis
+	 *            the duration of a step in milliseconds, or 0 to run a single
+	 *            step as long as the time elapsed since the previous frame.
+	 * 
+	 * @see PhysicsWorld#setTimeStep(float)
+	 */
+	public static void setTimeStep(final float stepMillis) {
+		world.setTimeStep(stepMillis);
+	}
+
+	/**
+	 * Sets the maximum number of simulation steps run in a single update.
+	 * 
+	 * @param steps
+	 *            the maximum number of steps per update.
+	 * 
+	 * @see PhysicsWorld#setMaxSteps(int)
+	 */
+	public static void setMaxSteps(final int steps) {
+		world.setMaxSteps(steps);
+	}
+
+	/**
+	 * Enables or disables the continuous collision detection.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to sweep the motion against the walls.
+	 * 
+	 * @see PhysicsWorld#setContinuousCollisions(boolean)
+	 */
+	public static void setContinuousCollisions(final boolean enabled) {
+		world.setContinuousCollisions(enabled);
+	}
+
+	/**
+	 * Returns the world simulated by the physics engine.
+	 * 
+	 * @return the default world.
+	 */
+	public static PhysicsWorld getWorld() {
+		return world;
 	}
 }
\ No newline at end of file
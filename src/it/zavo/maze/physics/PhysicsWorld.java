@@ -0,0 +1,466 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.physics;
+
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.util.Status;
+
+/**
+ * A simulation of the ball rolling in a maze. Every world owns its state and
+ * reports the outcome of each update as a status, so several simulations can
+ * run at the same time, on different threads, as long as every thread
+ * updates its worlds on its own {@link Maze}: the collision checks keep
+ * scratch data in the maze (the sweep results, the query buffers of the
+ * tree and the count of the walls tested), which worlds updated at the same
+ * time on a shared maze would overwrite.
+ * <p>
+ * The orientation can be updated by another thread, e.g. the one of the
+ * sensors, while the world is updated: every update takes the latest sample
+ * as a whole, through an {@link OrientationBuffer}.
+ * 
+ * @author Maze-Android contributors
+ * 
+ * @see Physics
+ */
+public class PhysicsWorld {
+	/**
+	 * the threshold under which sensor values are ignored.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final float threshold = 0.01f;
+
+	/**
+	 * the coefficient of reduction of the speed after a bounce against a wall.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final float bounceReduction = 0.53f;
+
+	/**
+	 * the default duration of a simulation step, in milliseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final float DEFAULT_TIME_STEP = 2.0f;
+
+	/**
+	 * the default maximum number of simulation steps run in a single update.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int DEFAULT_MAX_STEPS = 25;
+
+	private float ballSpeed;
+	private float ballRadius;
+
+	private long time = 0;
+	private long timeOld = 0;
+	private long timeElapsed = 0;
+
+	private float timeStep = DEFAULT_TIME_STEP;
+	private int maxSteps = DEFAULT_MAX_STEPS;
+	private float accumulator = 0.0f;
+
+	private boolean continuousCollisions = true;
+
+	private OrientationBuffer samples = new OrientationBuffer();
+	// the sample used by the current update, only read by its thread
+	private float[] orientation = new float[3];
+	private long orientationTime = 0;
+	private float[] position = { 0.0f, 0.0f };
+	private float[] speed = { 0.0f, 0.0f };
+	private float[] acceleration = { 0.0f, 0.0f };
+
+	// the position before the last simulation step
+	private float[] previous = { 0.0f, 0.0f };
+	// the start of the motion swept against the walls
+	private float[] from = { 0.0f, 0.0f };
+
+	// the position to be drawn, reused on every frame
+	private float[] output = { 0.0f, 0.0f };
+
+	/**
+	 * Checks if the ball is colliding with a border of the board.
+	 * 
+	 * @return <code>true</code> if a collision is detected, <code>false</code>
+	 *         otherwise.
+	 */
+	private boolean checkBorders() {
+		boolean collision = false;
+
+		// if the ball goes out of the left side
+		if (position[0] < ballRadius - 1.0f) {
+			// flips the amount that passed the border on the other direction
+			position[0] = 2 * ballRadius - position[0] - 2.0f;
+
+			// multiplies speed on the x axis for the bounce reduction constant
+			// and changes the sign
+			speed[0] = -(speed[0] * bounceReduction);
+			// resets acceleration
+			acceleration[0] = 0.0f;
+
+			collision = true;
+		}
+		// if the ball goes out of the right side
+		else if (position[0] > 1.0f - ballRadius) {
+			// flips the amount that passed the border on the other direction
+			position[0] = 2 * (1.0f - ballRadius) - position[0];
+
+			// multiplies speed on the x axis for the bounce reduction constant
+			// and changes the sign
+			speed[0] = -(speed[0] * bounceReduction);
+			// resets acceleration
+			acceleration[0] = 0.0f;
+
+			collision = true;
+		}
+
+		// if the ball goes out of the top side
+		if (position[1] < ballRadius - 1) {
+			// flips the amount that passed the border on the other direction
+			position[1] = 2 * ballRadius - position[1] - 2;
+
+			// multiplies speed on the x axis for the bounce reduction constant
+			// and changes the sign
+			speed[1] = -(speed[1] * bounceReduction);
+			// resets acceleration
+			acceleration[1] = 0.0f;
+
+			collision = true;
+		}
+		// if the ball goes out of the bottom side
+		else if (position[1] > 1.0f - ballRadius) {
+			// flips the amount that passed the border on the other direction
+			position[1] = 2 * (1.0f - ballRadius) - position[1];
+
+			// multiplies speed on the x axis for the bounce reduction constant
+			// and changes the sign
+			speed[1] = -(speed[1] * bounceReduction);
+			// resets acceleration
+			acceleration[1] = 0.0f;
+
+			collision = true;
+		}
+
+		return collision;
+	}
+
+	/**
+	 * Checks if the ball is colliding with walls, holes and borders.
+	 * 
+	 * @param maze
+	 *            the maze to check for collisions.
+	 * 
+	 * @return the new status of the application.
+	 */
+	private Status checkCollisions(final Maze maze) {
+		// checks for collisions with the borders
+		checkBorders();
+
+		// checks for collisions with the walls
+		maze.checkWallsCollisions(position, speed, acceleration,
+				bounceReduction);
+		
+		// checks for collisions with the holes
+		return maze.checkHolesCollision(position);
+	}
+
+	/**
+	 * Computes the new acceleration of the ball using the data from the
+	 * sensors.
+	 */
+	private void computeAcceleration() {
+		// acceleration = values * -1
+
+		// checks for the threshold
+		if (Math.abs(orientation[1]) > threshold)
+			acceleration[0] = -(float) (Math.sin(orientation[1])
+					* Math.cos(orientation[1]) * ballSpeed);
+		else
+			acceleration[0] = 0.0f;
+
+		// checks for the threshold
+		if (Math.abs(orientation[2]) > threshold)
+			acceleration[1] = -(float) (Math.sin(orientation[2])
+					* Math.cos(orientation[2]) * ballSpeed);
+		else
+			acceleration[1] = 0.0f;
+	}
+
+	/**
+	 * Computes the new speed based on the acceleration and the time.
+	 * 
+	 * @param dt
+	 *            the time elapsed since the previous step, in milliseconds.
+	 */
+	private void computeSpeed(final float dt) {
+		// computes acceleration
+		computeAcceleration();
+
+		// computes speed
+		speed[0] += acceleration[0] * dt;
+		speed[1] += acceleration[1] * dt;
+	}
+
+	/**
+	 * Computes the new position of the ball in the given maze.
+	 * 
+	 * @param maze
+	 *            the maze to process.
+	 * @param dt
+	 *            the time elapsed since the previous step, in milliseconds.
+	 * 
+	 * @return the new status of the application.
+	 */
+	private Status computePosition(final Maze maze, final float dt) {
+		// computes speed
+		computeSpeed(dt);
+
+		from[0] = position[0];
+		from[1] = position[1];
+
+		// correct formulae, but worse result
+		// position[0] = position[0] + speed[0] * dt;
+		// position[1] = position[1] + speed[1] * dt;
+
+		// wrong formulae, but better result
+		position[0] = position[0] + speed[0] * dt + 0.5f * acceleration[0]
+				* dt * dt;
+		position[1] = position[1] + speed[1] * dt + 0.5f * acceleration[1]
+				* dt * dt;
+
+		// stops the ball at the first wall along the motion
+		if (continuousCollisions)
+			maze.sweepWallsCollisions(from, position, speed, acceleration,
+					bounceReduction);
+
+		// checks collisions
+		return checkCollisions(maze);
+	}
+
+	/**
+	 * Advances the simulation by the time elapsed since the last update, in
+	 * fixed steps. The time that doesn't fill a whole step is kept for the
+	 * next update, and the position of the ball is interpolated between the
+	 * last two steps accordingly.
+	 * 
+	 * @param maze
+	 *            the maze to process.
+	 * 
+	 * @return the new status of the application.
+	 */
+	private Status computeFixedSteps(final Maze maze) {
+		Status s = Status.GAME_OK;
+		int steps = 0;
+
+		accumulator += timeElapsed;
+
+		while (accumulator >= timeStep) {
+			// if the simulation can't keep up, drops the time left instead of
+			// falling further behind
+			if (steps == maxSteps) {
+				accumulator = 0.0f;
+				break;
+			}
+
+			previous[0] = position[0];
+			previous[1] = position[1];
+
+			s = computePosition(maze, timeStep);
+			accumulator -= timeStep;
+			steps++;
+
+			// the level is over, the ball is drawn where it stopped
+			if (s != Status.GAME_OK) {
+				output[0] = position[0];
+				output[1] = position[1];
+				return s;
+			}
+		}
+
+		// blends the last two positions by the fraction of step left over
+		float alpha = accumulator / timeStep;
+		output[0] = previous[0] + (position[0] - previous[0]) * alpha;
+		output[1] = previous[1] + (position[1] - previous[1]) * alpha;
+
+		return s;
+	}
+
+	/**
+	 * Updates the simulation up to the given time. Computes the new position
+	 * of the ball and checks for collisions, in fixed steps unless the
+	 * {@link #setTimeStep(float) time step} is 0.
+	 * 
+	 * @param maze
+	 *            the maze to process.
+	 * @param now
+	 *            the current time in milliseconds, on the same clock passed to
+	 *            {@link #init(Maze, long) init}.
+	 * 
+	 * @return the new status of the game:
+	 *         {@link it.zavo.maze.util.Status#GAME_OK GAME_OK},
+	 *         {@link it.zavo.maze.util.Status#LEVEL_LOST LEVEL_LOST} or
+	 *         {@link it.zavo.maze.util.Status#LEVEL_COMPLETE LEVEL_COMPLETE}.
+	 */
+	public Status update(final Maze maze, final long now) {
+		// updates time difference
+		timeOld = time;
+		time = now;
+		timeElapsed = time - timeOld;
+
+		// takes the latest orientation, consistent for the whole update
+		if (samples.update())
+			orientationTime = samples.get(orientation);
+
+		// computes position
+		Status s;
+		if (timeStep > 0.0f)
+			s = computeFixedSteps(maze);
+		else {
+			s = computePosition(maze, timeElapsed);
+
+			output[0] = position[0];
+			output[1] = position[1];
+		}
+
+		return s;
+	}
+
+	/**
+	 * Returns the position of the ball to be drawn after the last update.
+	 * 
+	 * @return an array of two floats containing the coordinates (x, y) of the
+	 *         ball. The same array is returned on every call, so it's only
+	 *         valid until the next update.
+	 */
+	public float[] getPosition() {
+		return output;
+	}
+
+	/**
+	 * Initializes the simulation using the data from the given maze.
+	 * 
+	 * @param maze
+	 *            the maze to initialize the simulation onto.
+	 * @param now
+	 *            the current time in milliseconds.
+	 */
+	public void init(final Maze maze, final long now) {
+		ballSpeed = maze.getBallSpeed();
+		ballRadius = maze.getBallRadius();
+
+		time = now;
+		timeOld = time;
+		timeElapsed = 0;
+		accumulator = 0.0f;
+
+		acceleration[0] = 0;
+		acceleration[1] = 0;
+
+		speed[0] = 0;
+		speed[1] = 0;
+
+		position = maze.getStart();
+
+		previous[0] = position[0];
+		previous[1] = position[1];
+		output[0] = position[0];
+		output[1] = position[1];
+	}
+
+	/**
+	 * Sets the duration of a simulation step. With a fixed step the behavior
+	 * of the ball doesn't depend on the frame rate.
+	 * 
+	 * @param stepMillis
+	 *            the duration of a step in milliseconds, or 0 to run a single
+	 *            step as long as the time elapsed since the previous frame.
+	 */
+	public void setTimeStep(final float stepMillis) {
+		timeStep = stepMillis;
+		accumulator = 0.0f;
+	}
+
+	/**
+	 * Sets the maximum number of simulation steps run in a single update. The
+	 * time exceeding the limit is dropped, so that after a long frame the
+	 * simulation slows down instead of falling further and further behind.
+	 * 
+	 * @param steps
+	 *            the maximum number of steps per update.
+	 */
+	public void setMaxSteps(final int steps) {
+		maxSteps = steps;
+	}
+
+	/**
+	 * Enables or disables the continuous collision detection. When enabled,
+	 * the motion of every step is swept against the walls, so the ball can't
+	 * pass through them however fast it goes; when disabled, only the final
+	 * position of every step is checked.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to sweep the motion against the walls.
+	 */
+	public void setContinuousCollisions(final boolean enabled) {
+		continuousCollisions = enabled;
+	}
+
+	/**
+	 * Updates the orientation using the values from the sensors. Call this
+	 * method when the sensors detected a change.
+	 * 
+	 * @param values
+	 *            an array of three floats containing the new data from the
+	 *            sensors.
+	 */
+	public void updateOrientation(final float[] values) {
+		updateOrientation(values, 0);
+	}
+
+	/**
+	 * Updates the orientation using the values from the sensors. Call this
+	 * method when the sensors detected a change. The orientation is taken by
+	 * the next update, so it can be called by a thread other than the one
+	 * updating the world, but always by the same one; it never blocks.
+	 * 
+	 * @param values
+	 *            an array of three floats containing the new data from the
+	 *            sensors.
+	 * @param timestamp
+	 *            the time of the sensor event, in nanoseconds.
+	 */
+	public void updateOrientation(final float[] values, final long timestamp) {
+		samples.publish(values, timestamp);
+	}
+
+	/**
+	 * Returns the time of the orientation used by the last update.
+	 * 
+	 * @return the time of the sensor event, in nanoseconds, or 0 if unknown.
+	 */
+	public long getOrientationTimestamp() {
+		return orientationTime;
+	}
+}
\ No newline at end of file
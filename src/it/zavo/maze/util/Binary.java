@@ -0,0 +1,322 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.util;
+
+import it.zavo.maze.maze.MazeData;
+
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+/**
+ * Static class implementing the methods for the handling of the compiled maze
+ * files.
+ * <p>
+ * A compiled maze holds the same data of its XML source, already mapped to the
+ * (-1, 1) space, in big endian order:
+ * 
+ * <pre>
+ * int     magic ("MAZB")
+ * short   version
+ * short   flags (0)
+ * int     time limit, in seconds
+ * float   size, in maze units
+ * float   start x, start y
+ * int     walls count
+ * int     holes count (goal included)
+ * float[] walls: left, right, top, bottom
+ * float[] holes: x, y, radius
+ * byte[]  goal flags, one bit per hole
+ * short   name length, followed by the UTF-8 name
+ * </pre>
+ * 
+ * @author Maze-Android contributors
+ */
+public class Binary {
+	/**
+	 * the first four bytes of a compiled maze ("MAZB").
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final int MAGIC = 0x4D415A42;
+
+	/**
+	 * the version of the format written by {@link #writeMaze(MazeData,
+	 * OutputStream) writeMaze}.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * the size of the fixed header, in bytes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int HEADER_SIZE = 32;
+
+	/**
+	 * the name of the charset of the maze name.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String CHARSET = "UTF-8";
+
+	/**
+	 * Tells if a buffer contains a compiled maze, checking its first bytes.
+	 * The position of the buffer is not changed.
+	 * 
+	 * @param buffer
+	 *            the buffer to check.
+	 * 
+	 * @return <code>true</code> if the buffer starts with the magic number,
+	 *         <code>false</code> otherwise.
+	 */
+	public static boolean isMaze(ByteBuffer buffer) {
+		return buffer.remaining() >= 4
+				&& buffer.getInt(buffer.position()) == MAGIC;
+	}
+
+	/**
+	 * Tells if a stream contains a compiled maze, checking its first bytes.
+	 * The stream must support mark and reset, and is reset to where it was.
+	 * 
+	 * @param inputStream
+	 *            the stream to check.
+	 * 
+	 * @return <code>true</code> if the stream starts with the magic number,
+	 *         <code>false</code> otherwise.
+	 * 
+	 * @throws IOException
+	 *             if the stream can't be read.
+	 */
+	public static boolean isMaze(InputStream inputStream) throws IOException {
+		byte[] magic = new byte[4];
+
+		inputStream.mark(magic.length);
+		int read = 0;
+		while (read < magic.length) {
+			int n = inputStream.read(magic, read, magic.length - read);
+			if (n < 0)
+				break;
+			read += n;
+		}
+		inputStream.reset();
+
+		return read == magic.length && isMaze(ByteBuffer.wrap(magic));
+	}
+
+	/**
+	 * Reads a compiled maze from a buffer. The floats are copied in bulk from
+	 * the buffer, which can be memory mapped.
+	 * 
+	 * @param buffer
+	 *            the buffer, positioned at the start of the maze. Its byte
+	 *            order is set to big endian.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws IOException
+	 *             if the buffer doesn't contain a compiled maze of a known
+	 *             version, or is truncated.
+	 */
+	public static MazeData readMaze(ByteBuffer buffer) throws IOException {
+		buffer.order(ByteOrder.BIG_ENDIAN);
+
+		/* header */
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+			throw new IOException("Not a compiled maze");
+
+		short version = buffer.getShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported compiled maze version: "
+					+ version);
+		// flags, unused
+		buffer.getShort();
+
+		int time = buffer.getInt();
+		float size = buffer.getFloat();
+		float[] start = new float[] { buffer.getFloat(), buffer.getFloat() };
+		int wallsCount = buffer.getInt();
+		int holesCount = buffer.getInt();
+
+		if (wallsCount < 0 || holesCount < 0)
+			throw new IOException("Invalid compiled maze counts: "
+					+ wallsCount + " walls, " + holesCount + " holes");
+
+		// computed on longs, since damaged counts could overflow an int
+		long needed = ((long) wallsCount * 4 + (long) holesCount * 3) * 4
+				+ ((long) holesCount + 7) / 8 + 2;
+		if (buffer.remaining() < needed)
+			throw new IOException("Truncated compiled maze");
+
+		/* walls and holes */
+		float[] walls = new float[wallsCount * 4];
+		buffer.asFloatBuffer().get(walls);
+		buffer.position(buffer.position() + walls.length * 4);
+
+		float[] holes = new float[holesCount * 3];
+		buffer.asFloatBuffer().get(holes);
+		buffer.position(buffer.position() + holes.length * 4);
+
+		/* goals */
+		BitSet goals = new BitSet(holesCount);
+		for (int i = 0; i < (holesCount + 7) / 8; i++) {
+			int bits = buffer.get() & 0xFF;
+			for (int j = 0; j < 8; j++)
+				if ((bits & (1 << j)) != 0)
+					goals.set(i * 8 + j);
+		}
+
+		/* name */
+		int length = buffer.getShort() & 0xFFFF;
+		if (buffer.remaining() < length)
+			throw new IOException("Truncated compiled maze");
+		byte[] name = new byte[length];
+		buffer.get(name);
+
+		return new MazeData(new String(name, CHARSET), time, size, start,
+				walls, holes, goals);
+	}
+
+	/**
+	 * Reads a compiled maze from a stream. The whole stream is read in a
+	 * single buffer.
+	 * 
+	 * @param inputStream
+	 *            the input stream of the compiled maze. It's not closed.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws IOException
+	 *             if the stream can't be read or doesn't contain a compiled
+	 *             maze.
+	 */
+	public static MazeData readMaze(InputStream inputStream)
+			throws IOException {
+		byte[] data = new byte[Math.max(HEADER_SIZE, inputStream.available())];
+		int length = 0;
+		int n = 0;
+
+		while (n >= 0) {
+			length += n;
+			if (length == data.length) {
+				byte[] grown = new byte[data.length * 2];
+				System.arraycopy(data, 0, grown, 0, length);
+				data = grown;
+			}
+			n = inputStream.read(data, length, data.length - length);
+		}
+
+		return readMaze(ByteBuffer.wrap(data, 0, length));
+	}
+
+	/**
+	 * Reads a compiled maze by memory mapping a region of a file, e.g. an
+	 * uncompressed resource inside the application package.
+	 * 
+	 * @param inputStream
+	 *            the stream of the file. It's not closed.
+	 * @param offset
+	 *            the position of the maze in the file, in bytes.
+	 * @param length
+	 *            the length of the maze, in bytes.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws IOException
+	 *             if the file can't be mapped or doesn't contain a compiled
+	 *             maze.
+	 */
+	public static MazeData mapMaze(FileInputStream inputStream, long offset,
+			long length) throws IOException {
+		FileChannel channel = inputStream.getChannel();
+
+		return readMaze(channel.map(FileChannel.MapMode.READ_ONLY, offset,
+				length));
+	}
+
+	/**
+	 * Writes a maze in the compiled format.
+	 * 
+	 * @param data
+	 *            the data of the maze.
+	 * @param outputStream
+	 *            the output stream. It's flushed but not closed.
+	 * 
+	 * @throws IOException
+	 *             if the stream can't be written, or the name of the maze is
+	 *             longer than 65535 bytes in UTF-8.
+	 */
+	public static void writeMaze(MazeData data, OutputStream outputStream)
+			throws IOException {
+		// the length of the name is written on 16 bits, so it's checked
+		// before writing anything
+		byte[] name = data.getName() != null ? data.getName().getBytes(
+				CHARSET) : new byte[0];
+		if (name.length > 0xFFFF)
+			throw new IOException("Maze name too long: " + name.length
+					+ " bytes");
+
+		DataOutputStream out = new DataOutputStream(outputStream);
+		float[] start = data.getStart();
+
+		/* header */
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeShort(0);
+		out.writeInt(data.getTime());
+		out.writeFloat(data.getSize());
+		out.writeFloat(start[0]);
+		out.writeFloat(start[1]);
+		out.writeInt(data.getWallsCount());
+		out.writeInt(data.getHolesCount());
+
+		/* walls and holes */
+		for (float f : data.getWalls())
+			out.writeFloat(f);
+		for (float f : data.getHoles())
+			out.writeFloat(f);
+
+		/* goals */
+		for (int i = 0; i < (data.getHolesCount() + 7) / 8; i++) {
+			int bits = 0;
+			for (int j = 0; j < 8; j++)
+				if (i * 8 + j < data.getHolesCount() && data.isGoal(i * 8 + j))
+					bits |= 1 << j;
+			out.writeByte(bits);
+		}
+
+		/* name */
+		out.writeShort(name.length);
+		out.write(name);
+
+		out.flush();
+	}
+}
\ No newline at end of file
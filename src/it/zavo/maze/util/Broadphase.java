@@ -0,0 +1,37 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.util;
+
+/**
+ * The strategies used to select the walls to be tested for collisions.
+ * 
+ * @author Maze-Android contributors
+ */
+public enum Broadphase {
+	/** Every wall of the maze is tested on every frame. */
+	BRUTE_FORCE,
+	/** Only the walls in the grid cell of the ball are tested. */
+	GRID,
+	/** Only the walls and holes whose box contains the ball are tested. */
+	TREE
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.util;
+
+/**
+ * The target frame rates of the game, trading smoothness for battery.
+ * 
+ * @author Maze-Android contributors
+ */
+public enum FrameRate {
+	/** A frame on every refresh of a 60 Hz display. */
+	FPS_60(60),
+	/** 45 frames per second, paced on a 60 Hz display. */
+	FPS_45(45),
+	/** A frame every two refreshes of a 60 Hz display. */
+	FPS_30(30);
+
+	/** the number of frames per second. */
+	public final int fps;
+
+	/**
+	 * Constructs the enum.
+	 * 
+	 * @param fps
+	 *            the number of frames per second.
+	 */
+	private FrameRate(int fps) {
+		this.fps = fps;
+	}
+}
\ No newline at end of file
@@ -22,18 +22,32 @@
 
 package it.zavo.maze.util;
 
-import java.io.File;
+import it.zavo.maze.maze.MazeData;
+
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.dom.DOMSource;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
 import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.Attributes;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Static class implementing the methods for the handling of the XML files.
@@ -42,46 +56,376 @@ import org.w3c.dom.Document;
  */
 public class Xml {
 	/**
-	 * Performs a validation check against the XML Schema of a maze.
+	 * the radius of the holes that don't specify one, in maze units.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final float DEFAULT_RADIUS = 7.0f;
+
+	// the parser used when none is specified
+	private static volatile XmlParser parser = XmlParser.STREAMING;
+
+	/**
+	 * Returns the parser used by {@link #parseMaze(InputStream)}.
+	 * 
+	 * @return the default parser.
+	 */
+	public static XmlParser getParser() {
+		return parser;
+	}
+
+	/**
+	 * Sets the parser used by {@link #parseMaze(InputStream)}. The default is
+	 * {@link XmlParser#STREAMING STREAMING}.
+	 * 
+	 * @param parser
+	 *            the default parser.
+	 */
+	public static void setParser(XmlParser parser) {
+		Xml.parser = parser;
+	}
+
+	/**
+	 * Parses a maze file with the default parser, mapping all the coordinates
+	 * to the (-1, 1) space.
+	 * 
+	 * @param inputStream
+	 *            the input stream of the XML file to parse. It's not closed.
+	 * 
+	 * @return the data of the maze.
+	 * 
+	 * @throws ParserConfigurationException
+	 *             if the XML parser can't be created.
+	 * @throws SAXException
+	 *             if the file is not well formed.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	public static MazeData parseMaze(InputStream inputStream)
+			throws ParserConfigurationException, SAXException, IOException {
+		return parseMaze(inputStream, parser);
+	}
+
+	/**
+	 * Parses a maze file, mapping all the coordinates to the (-1, 1) space.
 	 * 
 	 * @param inputStream
-	 *            the input stream of the XML file to validate.
+	 *            the input stream of the XML file to parse. It's not closed.
+	 * @param parser
+	 *            the parser to use.
+	 * 
+	 * @return the data of the maze.
 	 * 
-	 * @return <code>true</code> if the file validates correctly,
-	 *         <code>false</code> otherwise.
+	 * @throws ParserConfigurationException
+	 *             if the XML parser can't be created.
+	 * @throws SAXException
+	 *             if the file is not well formed.
+	 * @throws IOException
+	 *             if the file can't be read.
 	 */
-	public static boolean validate(InputStream inputStream) {
-		// hook up org.xml.sax.ErrorHandler implementation.
-		// schemaFactory.setErrorHandler( myErrorHandler );
+	public static MazeData parseMaze(InputStream inputStream, XmlParser parser)
+			throws ParserConfigurationException, SAXException, IOException {
+		if (parser == XmlParser.DOM)
+			return parseMazeDom(inputStream);
+
+		MazeHandler handler = new MazeHandler();
+		SAXParserFactory.newInstance().newSAXParser().parse(inputStream,
+				handler);
+
+		return handler.getData();
+	}
+
+	/**
+	 * Parses a maze file building its DOM tree.
+	 */
+	private static MazeData parseMazeDom(InputStream inputStream)
+			throws ParserConfigurationException, SAXException, IOException {
+		// parses the document
+		DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory
+				.newInstance();
+		DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
+		Document doc = docBuilder.parse(inputStream);
+
+		// normalizes text representation
+		doc.getDocumentElement().normalize();
+
+		/* maze */
+		String name = attribute(doc.getDocumentElement(), "name");
+		String time = attribute(doc.getDocumentElement(), "time");
+		// size-x -> size
+		float size = Float.parseFloat(attribute(doc.getDocumentElement(),
+				"size-x"));
+
+		/* start */
+		Node st = doc.getElementsByTagName("start").item(0);
+		// size is mapped to (-1, 1), so everything is multiplied by 2
+		float[] start = new float[] {
+				((Float.parseFloat(attribute(st, "x")) * 2) / size) - 1,
+				((Float.parseFloat(attribute(st, "y")) * 2) / size) - 1 };
+
+		/* walls */
+		NodeList wa = doc.getElementsByTagName("w");
+		float[] walls = new float[wa.getLength() * 4];
+		for (int i = 0; i < wa.getLength(); i++) {
+			walls[i * 4] = coordinate(wa.item(i), "x1", size);
+			walls[i * 4 + 1] = coordinate(wa.item(i), "x2", size);
+			walls[i * 4 + 2] = coordinate(wa.item(i), "y1", size);
+			walls[i * 4 + 3] = coordinate(wa.item(i), "y2", size);
+		}
+
+		/* holes */
+		NodeList ho = doc.getElementsByTagName("h");
+		// the goal is added as the last hole
+		float[] holes = new float[(ho.getLength() + 1) * 3];
+		for (int i = 0; i < ho.getLength(); i++) {
+			holes[i * 3] = coordinate(ho.item(i), "x", size);
+			holes[i * 3 + 1] = coordinate(ho.item(i), "y", size);
+			holes[i * 3 + 2] = (radius(ho.item(i)) * 2) / size;
+		}
+
+		/* goal */
+		Node go = doc.getElementsByTagName("goal").item(0);
+		int g = ho.getLength() * 3;
+		holes[g] = coordinate(go, "x", size);
+		holes[g + 1] = coordinate(go, "y", size);
+		// the goal takes the radius of the first hole, unless it has its own
+		if (attribute(go, "radius") == null && ho.getLength() > 0)
+			holes[g + 2] = (radius(ho.item(0)) * 2) / size;
+		else
+			holes[g + 2] = (radius(go) * 2) / size;
+
+		BitSet goals = new BitSet();
+		goals.set(ho.getLength());
+
+		return new MazeData(name, time != null ? Integer.parseInt(time) : 0,
+				size, start, walls, holes, goals);
+	}
+
+	/**
+	 * Returns the value of an attribute of the given node.
+	 * 
+	 * @return the value, or <code>null</code> if the attribute is missing.
+	 */
+	private static String attribute(Node node, String name) {
+		Node attribute = node.getAttributes().getNamedItem(name);
+
+		return attribute != null ? attribute.getNodeValue() : null;
+	}
+
+	/**
+	 * Returns a coordinate attribute of the given node, mapped to the (-1, 1)
+	 * space.
+	 */
+	private static float coordinate(Node node, String name, float size) {
+		// size is mapped to (-1, 1), so everything is multiplied by 2
+		return ((Float.parseFloat(attribute(node, name)) * 2) / size) - 1;
+	}
+
+	/**
+	 * Returns the radius of the given hole node, in maze units. The radius can
+	 * be omitted, in which case the default is returned.
+	 */
+	private static float radius(Node node) {
+		String radius = attribute(node, "radius");
+
+		return radius != null ? Float.parseFloat(radius) : DEFAULT_RADIUS;
+	}
+
+	/**
+	 * Compiles the XML Schema of a maze. The schema is thread safe, and
+	 * should be compiled once and reused for all the validations.
+	 * 
+	 * @param inputStream
+	 *            the input stream of the XSD file. It's not closed.
+	 * 
+	 * @return the compiled schema.
+	 * 
+	 * @throws SAXException
+	 *             if the schema is not valid.
+	 */
+	public static Schema loadSchema(InputStream inputStream)
+			throws SAXException {
+		// builds an XSD-aware SchemaFactory
+		SchemaFactory schemaFactory = SchemaFactory
+				.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+		return schemaFactory.newSchema(new StreamSource(inputStream));
+	}
+
+	/**
+	 * Performs a validation check against the XML Schema of a maze. The file
+	 * is streamed through the validator, without building a DOM tree.
+	 * 
+	 * @param inputStream
+	 *            the input stream of the XML file to validate. It's not
+	 *            closed.
+	 * @param schema
+	 *            the schema compiled by {@link #loadSchema(InputStream)}.
+	 * 
+	 * @return the errors found, with their line and column numbers. The list
+	 *         is empty if the file validates correctly. A file that is not
+	 *         well formed has a single fatal error, where the parsing
+	 *         stopped.
+	 * 
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	public static List<SAXParseException> validate(InputStream inputStream,
+			Schema schema) throws IOException {
+		final List<SAXParseException> errors = new ArrayList<SAXParseException>();
+
+		// creates a validator, as they are not thread safe
+		Validator validator = schema.newValidator();
+		validator.setErrorHandler(new ErrorHandler() {
+			@Override
+			public void warning(SAXParseException exception) {
+			}
+
+			@Override
+			public void error(SAXParseException exception) {
+				// the same error can be reported twice by the parser and
+				// the validator
+				if (!errors.isEmpty()) {
+					SAXParseException last = errors.get(errors.size() - 1);
+					if (last.getLineNumber() == exception.getLineNumber()
+							&& last.getColumnNumber() == exception
+									.getColumnNumber()
+							&& last.getMessage().equals(exception.getMessage()))
+						return;
+				}
+
+				errors.add(exception);
+			}
+
+			@Override
+			public void fatalError(SAXParseException exception)
+					throws SAXException {
+				errors.add(exception);
+				throw exception;
+			}
+		});
 
 		try {
-			// build an XSD-aware SchemaFactory
-			SchemaFactory schemaFactory = SchemaFactory
-					.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			validator.validate(new StreamSource(inputStream));
+		} catch (SAXException e) {
+			// already collected by the error handler
+		}
+
+		return errors;
+	}
+
+	/**
+	 * Reads a maze file in a single forward pass, storing the walls and the
+	 * holes directly in growing float arrays.
+	 */
+	private static class MazeHandler extends DefaultHandler {
+		private String name;
+		private int time;
+		private float size;
+		private float[] start;
+
+		private float[] walls = new float[64 * 4];
+		private int wallsCount = 0;
+		private float[] holes = new float[64 * 3];
+		private int holesCount = 0;
+
+		// the goal comes before the holes, but is stored as the last one
+		private float[] goal;
+		private String goalRadius;
+		private String firstRadius;
 
-			// get the custom xsd schema describing the required format for my
-			// XML files.
-			Schema schemaXSD = schemaFactory.newSchema(new File(
-					"/raw/schema/maze.xsd"));
+		@Override
+		public void startElement(String uri, String localName, String qName,
+				Attributes attributes) throws SAXException {
+			String element = localName.length() > 0 ? localName : qName;
 
-			// Create a Validator capable of validating XML files according to
-			// my custom schema.
-			Validator validator = schemaXSD.newValidator();
+			if (element.equals("maze")) {
+				name = attributes.getValue("name");
+				String t = attributes.getValue("time");
+				time = t != null ? Integer.parseInt(t) : 0;
+				// size-x -> size
+				size = Float.parseFloat(attributes.getValue("size-x"));
 
-			// Get a parser capable of parsing vanilla XML into a DOM tree
-			DocumentBuilder parser = DocumentBuilderFactory.newInstance()
-					.newDocumentBuilder();
+			} else if (element.equals("start") && start == null) {
+				start = new float[] { coordinate(attributes, "x"),
+						coordinate(attributes, "y") };
 
-			// parse the XML purely as XML and get a DOM tree represenation.
-			Document document = parser.parse(inputStream);
+			} else if (element.equals("goal") && goal == null) {
+				goal = new float[] { coordinate(attributes, "x"),
+						coordinate(attributes, "y") };
+				goalRadius = attributes.getValue("radius");
 
-			// parse the XML DOM tree againts the stricter XSD schema
-			validator.validate(new DOMSource(document));
+			} else if (element.equals("w")) {
+				if ((wallsCount + 1) * 4 > walls.length)
+					walls = grow(walls);
+				int i = wallsCount++ * 4;
+				walls[i] = coordinate(attributes, "x1");
+				walls[i + 1] = coordinate(attributes, "x2");
+				walls[i + 2] = coordinate(attributes, "y1");
+				walls[i + 3] = coordinate(attributes, "y2");
 
-		} catch (Exception e) {
-			e.printStackTrace();
+			} else if (element.equals("h")) {
+				// one more hole is kept free for the goal
+				if ((holesCount + 2) * 3 > holes.length)
+					holes = grow(holes);
+				String radius = attributes.getValue("radius");
+				if (holesCount == 0)
+					firstRadius = radius;
+				int i = holesCount++ * 3;
+				holes[i] = coordinate(attributes, "x");
+				holes[i + 1] = coordinate(attributes, "y");
+				holes[i + 2] = (radius(radius) * 2) / size;
+			}
 		}
 
-		return true;
+		/** Returns a coordinate mapped to the (-1, 1) space. */
+		private float coordinate(Attributes attributes, String name) {
+			// size is mapped to (-1, 1), so everything is multiplied by 2
+			return ((Float.parseFloat(attributes.getValue(name)) * 2) / size)
+					- 1;
+		}
+
+		/** Returns a radius in maze units, or the default if it's missing. */
+		private float radius(String radius) {
+			return radius != null ? Float.parseFloat(radius) : DEFAULT_RADIUS;
+		}
+
+		/** Returns a copy of the array with twice its length. */
+		private float[] grow(float[] array) {
+			float[] grown = new float[array.length * 2];
+			System.arraycopy(array, 0, grown, 0, array.length);
+			return grown;
+		}
+
+		/**
+		 * Returns the data of the parsed maze.
+		 * 
+		 * @throws SAXException
+		 *             if the start or the goal are missing.
+		 */
+		public MazeData getData() throws SAXException {
+			if (start == null || goal == null)
+				throw new SAXException("Missing start or goal");
+
+			/* goal */
+			int g = holesCount * 3;
+			holes[g] = goal[0];
+			holes[g + 1] = goal[1];
+			// the goal takes the radius of the first hole, if it has none
+			if (goalRadius == null && holesCount > 0)
+				holes[g + 2] = (radius(firstRadius) * 2) / size;
+			else
+				holes[g + 2] = (radius(goalRadius) * 2) / size;
+
+			float[] w = new float[wallsCount * 4];
+			System.arraycopy(walls, 0, w, 0, w.length);
+			float[] h = new float[(holesCount + 1) * 3];
+			System.arraycopy(holes, 0, h, 0, h.length);
+
+			BitSet goals = new BitSet();
+			goals.set(holesCount);
+
+			return new MazeData(name, time, size, start, w, h, goals);
+		}
 	}
 }
\ No newline at end of file
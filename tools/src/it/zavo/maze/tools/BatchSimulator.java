@@ -0,0 +1,451 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.tools;
+
+import it.zavo.maze.maze.Maze;
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.physics.PhysicsWorld;
+import it.zavo.maze.util.Status;
+import it.zavo.maze.util.Xml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Command-line tool that plays a maze many times on a plain JVM, with scripted
+ * or random tilt, spreading the runs on all the cores. It prints the number of
+ * simulations per second, the completion rate, the distribution of the time
+ * to reach the goal and the holes where the ball is lost most often.
+ * <p>
+ * Usage:
+ * 
+ * <pre>
+ * java -cp bin/classes:tools/bin:android.jar it.zavo.maze.tools.BatchSimulator
+ *         [-runs N] [-seed S] [-input random|greedy] [-threads T] [-frame MS]
+ *         file.maze...
+ * </pre>
+ * 
+ * The Android library is only needed to resolve the classes referenced by the
+ * game; no Android method is called.
+ * 
+ * @author Maze-Android contributors
+ */
+public class BatchSimulator {
+	/**
+	 * the maximum tilt of the board, in radians.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final float MAX_TILT = 0.5f;
+
+	/**
+	 * the time a random tilt is kept before choosing a new one, in
+	 * milliseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final long RANDOM_PERIOD = 250;
+
+	/**
+	 * the time limit of the mazes that don't specify one, in milliseconds.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final long DEFAULT_LIMIT = 60000;
+
+	/**
+	 * the number of runs under which a task is not split any further.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final int CHUNK = 64;
+
+	/** The strategies used to tilt the board. */
+	public enum Input {
+		/** The tilt changes randomly every {@value #RANDOM_PERIOD} ms. */
+		RANDOM,
+		/** The board is tilted towards the goal, with some noise. */
+		GREEDY
+	}
+
+	private MazeData data;
+	private Input input;
+	private long seed;
+	private long frame;
+	private long limit;
+
+	// every worker thread plays on its own maze, since the collision checks
+	// use per-maze scratch data
+	private ThreadLocal<Maze> mazes = new ThreadLocal<Maze>() {
+		@Override
+		protected Maze initialValue() {
+			return new Maze(data);
+		}
+	};
+
+	/**
+	 * Constructs a simulator for the given maze.
+	 * 
+	 * @param data
+	 *            the data of the maze.
+	 * @param input
+	 *            the strategy used to tilt the board.
+	 * @param seed
+	 *            the seed of the random generators. Run <code>i</code> always
+	 *            uses a seed mixed from <code>seed + i</code>, so the results
+	 *            don't depend on the number of threads.
+	 * @param frame
+	 *            the duration of a frame, in milliseconds.
+	 */
+	public BatchSimulator(MazeData data, Input input, long seed, long frame) {
+		this.data = data;
+		this.input = input;
+		this.seed = seed;
+		this.frame = frame;
+		this.limit = data.getTime() > 0 ? data.getTime() * 1000L
+				: DEFAULT_LIMIT;
+	}
+
+	/**
+	 * The aggregate outcome of a number of runs.
+	 */
+	public static class Result {
+		private int runs = 0;
+		private int completed = 0;
+		private int lost = 0;
+		private int[] times = new int[16];
+		private int[] losses;
+
+		private Result(int holes) {
+			losses = new int[holes];
+		}
+
+		private void addTime(int time) {
+			if (completed == times.length)
+				times = Arrays.copyOf(times, times.length * 2);
+			times[completed++] = time;
+		}
+
+		private void merge(Result other) {
+			for (int i = 0; i < other.completed; i++)
+				addTime(other.times[i]);
+			for (int i = 0; i < losses.length; i++)
+				losses[i] += other.losses[i];
+
+			runs += other.runs;
+			lost += other.lost;
+		}
+	}
+
+	/**
+	 * Plays the runs in a range, splitting it in halves until it's small
+	 * enough.
+	 */
+	private class SimulationTask extends RecursiveTask<Result> {
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+
+		private SimulationTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Result compute() {
+			if (to - from <= CHUNK) {
+				Result result = new Result(data.getHolesCount());
+				for (int run = from; run < to; run++)
+					play(run, result);
+				return result;
+			}
+
+			int middle = (from + to) / 2;
+			SimulationTask left = new SimulationTask(from, middle);
+			left.fork();
+			Result result = new SimulationTask(middle, to).compute();
+			result.merge(left.join());
+
+			return result;
+		}
+	}
+
+	/**
+	 * Plays a whole level, until the ball falls in an hole or the time runs
+	 * out, and adds the outcome to the result.
+	 * 
+	 * @param run
+	 *            the index of the run.
+	 * @param result
+	 *            the result to be updated.
+	 */
+	private void play(int run, Result result) {
+		Maze maze = mazes.get();
+		PhysicsWorld world = new PhysicsWorld();
+		Random random = new Random(mix(seed + run));
+		float[] tilt = new float[3];
+		float[] goal = goal();
+
+		long now = 0;
+		world.init(maze, now);
+
+		result.runs++;
+
+		while (now < limit) {
+			float[] position = world.getPosition();
+
+			if (input == Input.RANDOM) {
+				if (now % RANDOM_PERIOD < frame) {
+					tilt[1] = (random.nextFloat() * 2 - 1) * MAX_TILT;
+					tilt[2] = (random.nextFloat() * 2 - 1) * MAX_TILT;
+				}
+			} else {
+				// the acceleration is opposite to the tilt
+				tilt[1] = -Math.signum(goal[0] - position[0]) * MAX_TILT
+						+ (float) random.nextGaussian() * MAX_TILT / 2;
+				tilt[2] = -Math.signum(goal[1] - position[1]) * MAX_TILT
+						+ (float) random.nextGaussian() * MAX_TILT / 2;
+			}
+			world.updateOrientation(tilt);
+
+			now += frame;
+			Status s = world.update(maze, now);
+
+			if (s == Status.LEVEL_COMPLETE) {
+				result.addTime((int) now);
+				return;
+			} else if (s == Status.LEVEL_LOST) {
+				result.lost++;
+				result.losses[nearestHole(world.getPosition())]++;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the position of the first goal.
+	 */
+	private float[] goal() {
+		float[] holes = data.getHoles();
+
+		for (int i = 0; i < data.getHolesCount(); i++)
+			if (data.isGoal(i))
+				return new float[] { holes[i * 3], holes[i * 3 + 1] };
+
+		return new float[] { 0.0f, 0.0f };
+	}
+
+	/**
+	 * Returns the index of the hole nearest to the given position.
+	 */
+	private int nearestHole(float[] position) {
+		float[] holes = data.getHoles();
+		int nearest = 0;
+		float best = Float.MAX_VALUE;
+
+		for (int i = 0; i < data.getHolesCount(); i++) {
+			float dx = position[0] - holes[i * 3];
+			float dy = position[1] - holes[i * 3 + 1];
+			if (dx * dx + dy * dy < best) {
+				best = dx * dx + dy * dy;
+				nearest = i;
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Plays the given number of runs on the pool.
+	 * 
+	 * @param pool
+	 *            the pool running the simulations.
+	 * @param runs
+	 *            the number of runs.
+	 * 
+	 * @return the aggregate outcome of the runs.
+	 */
+	public Result run(ForkJoinPool pool, int runs) {
+		return pool.invoke(new SimulationTask(0, runs));
+	}
+
+	/**
+	 * Prints the statistics of a result.
+	 * 
+	 * @param result
+	 *            the result to print.
+	 */
+	public void print(Result result) {
+		int timedOut = result.runs - result.completed - result.lost;
+
+		System.out.printf("  completed %.1f%%, lost %.1f%%, timed out %.1f%%%n",
+				percent(result.completed, result.runs),
+				percent(result.lost, result.runs),
+				percent(timedOut, result.runs));
+
+		// time to goal
+		if (result.completed > 0) {
+			int[] times = Arrays.copyOf(result.times, result.completed);
+			Arrays.sort(times);
+
+			System.out.printf(
+					"  time to goal (s): min %.2f, p10 %.2f, p50 %.2f, "
+							+ "p90 %.2f, max %.2f%n", times[0] / 1000.0f,
+					percentile(times, 10) / 1000.0f,
+					percentile(times, 50) / 1000.0f,
+					percentile(times, 90) / 1000.0f,
+					times[times.length - 1] / 1000.0f);
+
+			// ten bins over the time limit
+			int[] bins = new int[10];
+			for (int t : times)
+				bins[(int) Math.min(9, t * 10L / limit)]++;
+
+			StringBuilder histogram = new StringBuilder("  histogram:");
+			for (int i = 0; i < bins.length; i++)
+				histogram.append(String.format(" %ds:%d",
+						(i + 1) * limit / 10000, bins[i]));
+			System.out.println(histogram);
+		}
+
+		// hole-loss hotspots, sorted by count
+		List<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < result.losses.length; i++)
+			if (result.losses[i] > 0)
+				order.add(i);
+
+		final int[] losses = result.losses;
+		Collections.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return losses[b] - losses[a];
+			}
+		});
+
+		float[] holes = data.getHoles();
+		for (int i = 0; i < Math.min(10, order.size()); i++) {
+			int h = order.get(i);
+			// maps the position back to maze units
+			System.out.printf("  hole #%d at (%.0f, %.0f): %d losses (%.1f%%)%n",
+					h + 1, (holes[h * 3] + 1) * data.getSize() / 2,
+					(holes[h * 3 + 1] + 1) * data.getSize() / 2, losses[h],
+					percent(losses[h], result.lost));
+		}
+	}
+
+	/**
+	 * Mixes the bits of a seed with the SplitMix64 finalizer, so that close
+	 * seeds give uncorrelated random sequences.
+	 */
+	private static long mix(long z) {
+		z += 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static float percent(int count, int total) {
+		return total == 0 ? 0.0f : count * 100.0f / total;
+	}
+
+	private static int percentile(int[] sorted, int p) {
+		return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+	}
+
+	/**
+	 * Runs the simulations of the mazes given on the command line.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * 
+	 * @throws Exception
+	 *             if a maze can't be read.
+	 */
+	public static void main(String[] args) throws Exception {
+		int runs = 10000;
+		long seed = 0;
+		long frame = 16;
+		int threads = Runtime.getRuntime().availableProcessors();
+		Input input = Input.RANDOM;
+		List<String> files = new ArrayList<String>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-runs"))
+				runs = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-seed"))
+				seed = Long.parseLong(args[++i]);
+			else if (args[i].equals("-frame"))
+				frame = Long.parseLong(args[++i]);
+			else if (args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-input"))
+				input = Input.valueOf(args[++i].toUpperCase());
+			else
+				files.add(args[i]);
+		}
+
+		if (files.isEmpty()) {
+			System.err.println("usage: BatchSimulator [-runs N] [-seed S] "
+					+ "[-input random|greedy] [-threads T] [-frame MS] "
+					+ "file.maze...");
+			System.exit(1);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		for (String file : files) {
+			InputStream is = new FileInputStream(file);
+			MazeData data;
+			try {
+				data = Xml.parseMaze(is);
+			} finally {
+				is.close();
+			}
+
+			BatchSimulator simulator = new BatchSimulator(data, input, seed,
+					frame);
+
+			long begin = System.nanoTime();
+			Result result = simulator.run(pool, runs);
+			long elapsed = (System.nanoTime() - begin) / 1000000;
+
+			System.out.printf("%s (%s): %d runs in %d ms, %.0f sims/s on %d "
+					+ "threads%n", new File(file).getName(), data.getName(),
+					runs, elapsed, runs * 1000.0f / Math.max(1, elapsed),
+					threads);
+			simulator.print(result);
+		}
+
+		pool.shutdown();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,251 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.tools;
+
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.util.Binary;
+import it.zavo.maze.util.Xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Command-line tool that generates <code>LevelIndex.java</code>, the index of
+ * the levels found in the raw resources, so that the game can choose a level
+ * without reflection and without opening the maze files. It must be run
+ * whenever a maze is added, removed or modified.
+ * <p>
+ * Usage:
+ * 
+ * <pre>
+ * java -cp bin/classes:tools/bin:android.jar it.zavo.maze.tools.LevelIndexGenerator
+ *         [-o FILE] [dir]
+ * </pre>
+ * 
+ * The mazes are the <code>.maze</code> and <code>.mzb</code> files in
+ * <code>res/raw</code>, unless another directory is given, and the index is
+ * written to <code>src/it/zavo/maze/maze/LevelIndex.java</code>, unless
+ * another file is given with <code>-o</code>.
+ * 
+ * @author Maze-Android contributors
+ */
+public class LevelIndexGenerator {
+	/**
+	 * the directory of the mazes, unless another one is given.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String DEFAULT_DIR = "res/raw";
+
+	/**
+	 * the generated file, unless another one is given.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String DEFAULT_OUTPUT = "src/it/zavo/maze/maze/LevelIndex.java";
+
+	/**
+	 * the line separator of the generated file, the same of the sources.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String NL = "\r\n";
+
+	/**
+	 * Generates the index of the mazes in the given directory.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * 
+	 * @throws Exception
+	 *             if a maze can't be read or parsed, or the index can't be
+	 *             written.
+	 */
+	public static void main(String[] args) throws Exception {
+		File dir = new File(DEFAULT_DIR);
+		File output = new File(DEFAULT_OUTPUT);
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-o"))
+				output = new File(args[++i]);
+			else
+				dir = new File(args[i]);
+		}
+
+		File[] files = dir.listFiles();
+		if (files == null) {
+			System.err.println("usage: LevelIndexGenerator [-o FILE] [dir]");
+			System.exit(1);
+		}
+		Arrays.sort(files);
+
+		StringBuilder levels = new StringBuilder();
+		int count = 0;
+
+		for (File file : files) {
+			String name = file.getName();
+			if (!name.endsWith(".maze") && !name.endsWith(MazeCompiler.EXTENSION))
+				continue;
+			// the resource name is the file name without the extension
+			String resource = name.substring(0, name.lastIndexOf('.'));
+
+			byte[] content = read(file);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+
+			MazeData data;
+			InputStream is = new ByteArrayInputStream(content);
+			if (Binary.isMaze(ByteBuffer.wrap(content)))
+				data = Binary.readMaze(is);
+			else
+				data = Xml.parseMaze(is);
+
+			levels.append(String.format(Locale.US, "\t\t\tnew Level(R.raw.%s, "
+					+ "\"%s\", %d, %.1ff, %d, %d, 0x%08x)," + NL, resource,
+					escape(data.getName()), data.getTime(), data.getSize(),
+					data.getWallsCount(), data.getHolesCount(),
+					(int) crc.getValue()));
+			count++;
+
+			System.out.printf("%s: %s, %d walls, %d holes, crc %08x%n", name,
+					data.getName(), data.getWallsCount(),
+					data.getHolesCount(), crc.getValue());
+		}
+
+		Writer out = new OutputStreamWriter(new FileOutputStream(output),
+				"UTF-8");
+		try {
+			out.write(header() + levels + footer());
+		} finally {
+			out.close();
+		}
+
+		System.out.printf("%d levels written to %s%n", count, output);
+	}
+
+	/** Returns the whole content of a file. */
+	private static byte[] read(File file) throws Exception {
+		byte[] content = new byte[(int) file.length()];
+		InputStream is = new FileInputStream(file);
+		try {
+			int length = 0;
+			while (length < content.length) {
+				int n = is.read(content, length, content.length - length);
+				if (n < 0)
+					break;
+				length += n;
+			}
+		} finally {
+			is.close();
+		}
+
+		return content;
+	}
+
+	/** Escapes a string to be put in a Java string literal. */
+	private static String escape(String s) {
+		if (s == null)
+			return "";
+
+		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	/** Returns the generated code before the levels. */
+	private static String header() {
+		return "/* AUTO-GENERATED FILE.  DO NOT MODIFY." + NL
+				+ " *" + NL
+				+ " * This class was automatically generated by the" + NL
+				+ " * LevelIndexGenerator tool from the mazes it found" + NL
+				+ " * in the raw resources. It should not be modified by hand."
+				+ NL
+				+ " */" + NL
+				+ NL
+				+ "package it.zavo.maze.maze;" + NL
+				+ NL
+				+ "import it.zavo.maze.R;" + NL
+				+ NL
+				+ "/**" + NL
+				+ " * The index of the levels bundled with the game." + NL
+				+ " */" + NL
+				+ "public final class LevelIndex {" + NL
+				+ "\tprivate static final Level[] LEVELS = new Level[] {" + NL;
+	}
+
+	/** Returns the generated code after the levels. */
+	private static String footer() {
+		return "\t};" + NL
+				+ NL
+				+ "\tprivate LevelIndex() {" + NL
+				+ "\t}" + NL
+				+ NL
+				+ "\t/**" + NL
+				+ "\t * Returns the number of levels." + NL
+				+ "\t * " + NL
+				+ "\t * @return the number of levels." + NL
+				+ "\t */" + NL
+				+ "\tpublic static int getCount() {" + NL
+				+ "\t\treturn LEVELS.length;" + NL
+				+ "\t}" + NL
+				+ NL
+				+ "\t/**" + NL
+				+ "\t * Returns a level." + NL
+				+ "\t * " + NL
+				+ "\t * @param index" + NL
+				+ "\t *            the index of the level, from 0 to "
+				+ "{@link #getCount()} - 1." + NL
+				+ "\t * " + NL
+				+ "\t * @return the description of the level." + NL
+				+ "\t */" + NL
+				+ "\tpublic static Level get(int index) {" + NL
+				+ "\t\treturn LEVELS[index];" + NL
+				+ "\t}" + NL
+				+ NL
+				+ "\t/**" + NL
+				+ "\t * Returns the level of a maze file." + NL
+				+ "\t * " + NL
+				+ "\t * @param resId" + NL
+				+ "\t *            the resource ID of the maze file." + NL
+				+ "\t * " + NL
+				+ "\t * @return the description of the level, or "
+				+ "<code>null</code> if the" + NL
+				+ "\t *         maze file is not in the index." + NL
+				+ "\t */" + NL
+				+ "\tpublic static Level find(int resId) {" + NL
+				+ "\t\tfor (Level level : LEVELS)" + NL
+				+ "\t\t\tif (level.getResId() == resId)" + NL
+				+ "\t\t\t\treturn level;" + NL
+				+ NL
+				+ "\t\treturn null;" + NL
+				+ "\t}" + NL
+				+ "}";
+	}
+}
\ No newline at end of file
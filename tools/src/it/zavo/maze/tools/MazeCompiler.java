@@ -0,0 +1,259 @@
+/*
+ *	Maze-Android
+ *	Copyright 2026 the Maze-Android contributors
+ *
+ *	This file is part of Maze-Android.
+ *
+ *	Maze-Android is free software; you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation; either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	Maze-Android is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with Maze-Android.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package it.zavo.maze.tools;
+
+import it.zavo.maze.maze.MazeData;
+import it.zavo.maze.util.Binary;
+import it.zavo.maze.util.Xml;
+import it.zavo.maze.util.XmlParser;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.validation.Schema;
+
+import org.xml.sax.SAXParseException;
+
+/**
+ * Command-line tool that validates XML maze files against the XML Schema and
+ * compiles them to the binary format read by
+ * {@link Binary#readMaze(java.nio.ByteBuffer) Binary.readMaze}, which needs
+ * neither validation nor coordinate mapping at runtime. The XML files remain
+ * the source of the mazes.
+ * <p>
+ * Usage:
+ * 
+ * <pre>
+ * java -cp bin/classes:tools/bin:android.jar it.zavo.maze.tools.MazeCompiler
+ *         [-d DIR] [-schema XSD] [-threads T] [-check] file.maze|dir...
+ * </pre>
+ * 
+ * The files are validated in parallel, sharing a single compiled schema
+ * (<code>res/raw/schema/maze.xsd</code> by default), and every error is
+ * printed with its line and column. The directories are searched for
+ * <code>.maze</code> files. If any file is invalid, nothing is compiled and
+ * the exit status is 1; with <code>-check</code> nothing is compiled anyway.
+ * <p>
+ * Every <code>name.maze</code> is compiled to <code>name.mzb</code>, in the
+ * same directory or in the one given with <code>-d</code>. Since two raw
+ * resources can't have the same name, a compiled maze can't be put in the
+ * same resource directory of its source. The compiled files are memory
+ * mapped by the game if they are stored uncompressed in the package, with
+ * <code>aapt -0 mzb</code>, and read in a single buffer otherwise.
+ * 
+ * @author Maze-Android contributors
+ */
+public class MazeCompiler {
+	/**
+	 * the extension of the compiled mazes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final String EXTENSION = ".mzb";
+
+	/**
+	 * the extension of the XML mazes.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	public static final String SOURCE_EXTENSION = ".maze";
+
+	/**
+	 * the XML Schema used unless another one is given.
+	 * <p>
+	 * Constant value: {@value}
+	 */
+	private static final String DEFAULT_SCHEMA = "res/raw/schema/maze.xsd";
+
+	/**
+	 * The outcome of the validation of a maze file.
+	 */
+	private static class Validation implements Callable<Validation> {
+		private File source;
+		private Schema schema;
+
+		private List<SAXParseException> errors;
+		private MazeData data;
+
+		/**
+		 * Constructs the validation of a file.
+		 * 
+		 * @param source
+		 *            the maze file.
+		 * @param schema
+		 *            the compiled schema, shared by all the validations.
+		 */
+		public Validation(File source, Schema schema) {
+			this.source = source;
+			this.schema = schema;
+		}
+
+		/**
+		 * Validates the file and, if it's valid, parses it.
+		 * 
+		 * @return this validation.
+		 * 
+		 * @throws Exception
+		 *             if the file can't be read.
+		 */
+		@Override
+		public Validation call() throws Exception {
+			InputStream is = new FileInputStream(source);
+			try {
+				errors = Xml.validate(is, schema);
+			} finally {
+				is.close();
+			}
+
+			if (errors.isEmpty()) {
+				is = new FileInputStream(source);
+				try {
+					data = Xml.parseMaze(is, XmlParser.STREAMING);
+				} finally {
+					is.close();
+				}
+			}
+
+			return this;
+		}
+	}
+
+	/**
+	 * Validates and compiles the mazes given on the command line.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * 
+	 * @throws Exception
+	 *             if a maze or the schema can't be read, or a compiled maze
+	 *             can't be written.
+	 */
+	public static void main(String[] args) throws Exception {
+		File dir = null;
+		File xsd = new File(DEFAULT_SCHEMA);
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean check = false;
+		List<File> files = new ArrayList<File>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-d"))
+				dir = new File(args[++i]);
+			else if (args[i].equals("-schema"))
+				xsd = new File(args[++i]);
+			else if (args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-check"))
+				check = true;
+			else if (new File(args[i]).isDirectory()) {
+				File[] sources = new File(args[i]).listFiles();
+				Arrays.sort(sources);
+				for (File f : sources)
+					if (f.getName().endsWith(SOURCE_EXTENSION))
+						files.add(f);
+			} else
+				files.add(new File(args[i]));
+		}
+
+		if (files.isEmpty()) {
+			System.err.println("usage: MazeCompiler [-d DIR] [-schema XSD] "
+					+ "[-threads T] [-check] file.maze|dir...");
+			System.exit(1);
+		}
+
+		/* validation */
+		long begin = System.nanoTime();
+
+		// the schema is compiled once, and shared by all the threads
+		InputStream is = new FileInputStream(xsd);
+		Schema schema;
+		try {
+			schema = Xml.loadSchema(is);
+		} finally {
+			is.close();
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<Validation>> validations = new ArrayList<Future<Validation>>();
+		for (File f : files)
+			validations.add(pool.submit(new Validation(f, schema)));
+
+		int invalid = 0;
+		List<Validation> valid = new ArrayList<Validation>();
+		for (Future<Validation> future : validations) {
+			Validation v = future.get();
+
+			if (v.errors.isEmpty())
+				valid.add(v);
+			else {
+				invalid++;
+				for (SAXParseException e : v.errors)
+					System.err.printf("%s:%d:%d: %s%n", v.source.getPath(),
+							e.getLineNumber(), e.getColumnNumber(),
+							e.getMessage());
+			}
+		}
+		pool.shutdown();
+
+		System.out.printf("%d mazes validated in %d ms on %d threads, %d "
+				+ "invalid%n", files.size(),
+				(System.nanoTime() - begin) / 1000000, threads, invalid);
+
+		if (invalid > 0)
+			System.exit(1);
+		if (check)
+			return;
+
+		/* compilation */
+		for (Validation v : valid) {
+			String name = v.source.getName();
+			if (name.lastIndexOf('.') > 0)
+				name = name.substring(0, name.lastIndexOf('.'));
+			File target = new File(dir != null ? dir : v.source
+					.getAbsoluteFile().getParentFile(), name + EXTENSION);
+
+			OutputStream os = new BufferedOutputStream(new FileOutputStream(
+					target));
+			try {
+				Binary.writeMaze(v.data, os);
+			} finally {
+				os.close();
+			}
+
+			System.out.printf("%s -> %s: %d walls, %d holes, %d bytes%n",
+					v.source.getName(), target.getName(),
+					v.data.getWallsCount(), v.data.getHolesCount(),
+					target.length());
+		}
+	}
+}
\ No newline at end of file